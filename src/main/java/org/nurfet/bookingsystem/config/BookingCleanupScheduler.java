@@ -2,30 +2,70 @@ package org.nurfet.bookingsystem.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.nurfet.bookingsystem.service.BookingService;
+import org.nurfet.bookingsystem.service.BookingExpiryProcessor;
+import org.nurfet.bookingsystem.service.archive.BookingArchiver;
+import org.nurfet.bookingsystem.service.lock.AdvisoryLock;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Instant;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BookingCleanupScheduler {
 
-    private final BookingService service;
+    /**
+     * Ключи advisory-блокировок задач: за один тик задачу выполняет один узел.
+     * EXPIRY_LOCK_KEY берёт и BookingExpiryTimer, так что проход и колесо
+     * не выполняются одновременно.
+     */
+    public static final long EXPIRY_LOCK_KEY = 0x626F6F6B_65787069L;
+    static final long ARCHIVE_LOCK_KEY = 0x626F6F6B_61726368L;
 
-    @Scheduled(fixedRate = 1, timeUnit = TimeUnit.MINUTES)
+    private final BookingExpiryProcessor expiryProcessor;
+    private final BookingArchiver archiver;
+    private final AdvisoryLock advisoryLock;
+
+    /**
+     * При включённом колесе таймеров (booking.expiry.timer-enabled) основную
+     * работу выполняет BookingExpiryTimer, а проход подбирает пропущенное им.
+     */
+    @Scheduled(fixedRateString = "${booking.expiry.sweep-interval:1m}")
     public void cleanupExpiredBookings() {
 
         try {
-            int count = service.markExpiredBookings();
+            boolean executed = advisoryLock.runExclusively(EXPIRY_LOCK_KEY, () -> {
+                int count = expiryProcessor.expireBookings();
+
+                if (count > 0) {
+                    log.info("Всего помечено истекших бронирований: {}", count);
+                }
+            });
 
-            if (count > 0) {
-                log.info("Всего помечено истекших бронирований: {}", count);
+            if (!executed) {
+                log.debug("Очистка истекших бронирований выполняется другим узлом");
             }
         } catch (Exception e) {
             log.error("Ошибка при очистке истекших бронирований: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Scheduled(fixedRateString = "${booking.archive.interval:1h}")
+    public void archiveFinishedBookings() {
+        if (!archiver.isEnabled()) {
+            return;
+        }
+
+        try {
+            boolean executed = advisoryLock.runExclusively(ARCHIVE_LOCK_KEY,
+                    () -> archiver.archive(Instant.now()));
+
+            if (!executed) {
+                log.debug("Архивация бронирований выполняется другим узлом");
+            }
+        } catch (Exception e) {
+            log.error("Ошибка при архивации бронирований: {}", e.getMessage());
+        }
+    }
+}
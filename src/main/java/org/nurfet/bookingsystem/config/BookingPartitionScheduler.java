@@ -0,0 +1,47 @@
+package org.nurfet.bookingsystem.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.service.lock.AdvisoryLock;
+import org.nurfet.bookingsystem.service.partition.BookingPartitionMaintenance;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingPartitionScheduler {
+
+    /**
+     * Ключ advisory-блокировки обслуживания партиций.
+     */
+    static final long PARTITION_LOCK_KEY = 0x626F6F6B_70617274L;
+
+    private final BookingPartitionMaintenance partitionMaintenance;
+    private final AdvisoryLock advisoryLock;
+
+    /**
+     * Первый проход сразу после старта: партиции на будущие месяцы
+     * должны существовать раньше, чем в них начнут писать.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${booking.partitioning.cron:0 0 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+
+        try {
+            boolean executed = advisoryLock.runExclusively(PARTITION_LOCK_KEY, partitionMaintenance::maintain);
+
+            if (!executed) {
+                log.debug("Обслуживание партиций выполняется другим узлом");
+            }
+        } catch (Exception e) {
+            log.error("Ошибка при обслуживании партиций бронирований: {}", e.getMessage());
+        }
+    }
+}
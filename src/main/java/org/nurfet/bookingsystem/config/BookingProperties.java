@@ -0,0 +1,301 @@
+package org.nurfet.bookingsystem.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking")
+@Validated
+public record BookingProperties(
+
+        @Valid
+        @DefaultValue
+        Index index,
+
+        @Valid
+        @DefaultValue
+        Creation creation,
+
+        @Valid
+        @DefaultValue
+        Occupancy occupancy,
+
+        @Valid
+        @DefaultValue
+        Availability availability,
+
+        @Valid
+        @DefaultValue
+        Expiry expiry,
+
+        @Valid
+        @DefaultValue
+        Partitioning partitioning,
+
+        @Valid
+        @DefaultValue
+        Archive archive,
+
+        @Valid
+        @DefaultValue
+        RoomDirectory roomDirectory,
+
+        @Valid
+        @DefaultValue
+        Counters counters,
+
+        @Valid
+        @DefaultValue
+        Retry retry
+) {
+
+    /**
+     * Удаление старых партиций (retention-months больше 0) допустимо только вместе
+     * с архивацией, которая успевает перенести завершённые бронирования раньше:
+     * иначе партиции никогда не опустеют и не будут удалены.
+     */
+    @AssertTrue(message = "booking.partitioning.retention-months требует booking.archive.enabled "
+            + "и booking.archive.retention короче срока хранения партиций")
+    public boolean isPartitionRetentionCoveredByArchive() {
+        if (partitioning.retentionMonths() <= 0) {
+            return true;
+        }
+
+        return archive.enabled()
+                && archive.retention() != null
+                && archive.retention().compareTo(Duration.ofDays(28L * partitioning.retentionMonths())) < 0;
+    }
+
+    public enum CreationMode {
+
+        /**
+         * Блокировка строки комнаты (PESSIMISTIC_WRITE), проверка пересечений, вставка.
+         */
+        LOCKING,
+
+        /**
+         * Вставка без блокировки комнаты и без предварительной проверки в БД:
+         * пересечение отсекает ограничение excl_booking_overlap.
+         */
+        OPTIMISTIC
+    }
+
+    /**
+     * In-memory индекс активных бронирований (PENDING/CONFIRMED) по комнатам.
+     *
+     * @param enabled         включает индекс; при false все проверки идут в БД
+     * @param refreshInterval период полной пересборки индекса из БД
+     */
+    public record Index(
+
+            @DefaultValue("false")
+            boolean enabled,
+
+            @DefaultValue("10m")
+            Duration refreshInterval
+    ) {
+    }
+
+    /**
+     * Стратегия создания бронирований.
+     *
+     * @param mode LOCKING (по умолчанию) или OPTIMISTIC
+     */
+    public record Creation(
+
+            @DefaultValue("LOCKING")
+            CreationMode mode
+    ) {
+    }
+
+    /**
+     * Битовые карты занятости комнат с шагом 15 минут.
+     *
+     * @param enabled         включает карты; при false доступность считается по БД
+     * @param refreshInterval период полной пересборки карт из БД
+     */
+    public record Occupancy(
+
+            @DefaultValue("false")
+            boolean enabled,
+
+            @DefaultValue("10m")
+            Duration refreshInterval
+    ) {
+    }
+
+    /**
+     * Проверка доступности временного слота.
+     *
+     * @param conflictLimit максимальное число конфликтов в ответе, не меньше 1
+     *                      (иначе приложение не стартует); общее число возвращается отдельно
+     */
+    public record Availability(
+
+            @Positive
+            @DefaultValue("20")
+            int conflictLimit
+    ) {
+    }
+
+    /**
+     * Пакетная пометка истекших бронирований.
+     *
+     * @param batchSize     число строк в одной транзакции, не меньше 1
+     * @param maxBatches    максимум пакетов за один запуск, не меньше 1;
+     *                      остаток дообработает следующий запуск
+     * @param timerEnabled  точное истечение по колесу таймеров в памяти
+     * @param sweepInterval период страхующего прохода по БД
+     */
+    public record Expiry(
+
+            @Positive
+            @DefaultValue("1000")
+            int batchSize,
+
+            @Positive
+            @DefaultValue("100")
+            int maxBatches,
+
+            @DefaultValue("false")
+            boolean timerEnabled,
+
+            @DefaultValue("1m")
+            Duration sweepInterval
+    ) {
+    }
+
+    /**
+     * Обслуживание помесячных партиций таблицы bookings.
+     *
+     * @param monthsAhead     на сколько месяцев вперёд создавать партиции
+     * @param retentionMonths сколько прошедших месяцев хранить; более старые партиции
+     *                        удаляются, когда архиватор вынес из них все строки.
+     *                        0 — хранить всё; больше 0 — только при включённой
+     *                        архивации с booking.archive.retention короче этого срока
+     * @param cron            расписание обслуживания
+     */
+    public record Partitioning(
+
+            @DefaultValue("12")
+            int monthsAhead,
+
+            @DefaultValue("0")
+            int retentionMonths,
+
+            @DefaultValue("0 0 3 * * *")
+            String cron
+    ) {
+    }
+
+    /**
+     * Перенос завершённых бронирований (EXPIRED, CANCELLED) в bookings_archive.
+     *
+     * @param enabled    включает архивацию
+     * @param retention  сколько завершённое бронирование остаётся в bookings после окончания,
+     *                   не отрицательно
+     * @param batchSize  число строк в одной транзакции, не меньше 1
+     * @param maxBatches максимум пакетов за один запуск, не меньше 1
+     * @param interval   период запуска, больше нуля
+     */
+    public record Archive(
+
+            @DefaultValue("false")
+            boolean enabled,
+
+            @NotNull
+            @DefaultValue("90d")
+            Duration retention,
+
+            @Positive
+            @DefaultValue("1000")
+            int batchSize,
+
+            @Positive
+            @DefaultValue("100")
+            int maxBatches,
+
+            @NotNull
+            @DefaultValue("1h")
+            Duration interval
+    ) {
+
+        @AssertTrue(message = "booking.archive.retention не может быть отрицательным, "
+                + "а booking.archive.interval должен быть больше нуля")
+        public boolean isDurationsValid() {
+            return (retention == null || !retention.isNegative())
+                    && (interval == null || interval.isPositive());
+        }
+    }
+
+    /**
+     * In-memory справочник комнат для поиска по фильтру без обращения к БД.
+     *
+     * @param enabled         включает справочник; при false поиск идёт через RoomSpecification
+     * @param refreshInterval период полной пересборки справочника из БД
+     * @param knownIdsTtl     сколько подтверждённый ID комнаты проверяется в памяти
+     *                        (KnownRoomIds), прежде чем снова свериться с БД
+     */
+    public record RoomDirectory(
+
+            @DefaultValue("false")
+            boolean enabled,
+
+            @DefaultValue("10m")
+            Duration refreshInterval,
+
+            @DefaultValue("1m")
+            Duration knownIdsTtl
+    ) {
+    }
+
+    /**
+     * Счётчики активных бронирований по комнатам в памяти.
+     *
+     * @param enabled         включает счётчики; при false число считается запросом в БД
+     * @param refreshInterval период сверки счётчиков с БД
+     */
+    public record Counters(
+
+            @DefaultValue("false")
+            boolean enabled,
+
+            @DefaultValue("10m")
+            Duration refreshInterval
+    ) {
+    }
+
+    /**
+     * Повтор изменений, проигравших гонку оптимистической блокировки (@Version).
+     *
+     * @param maxRetries число повторов после первой попытки
+     * @param delay      пауза перед первым повтором
+     * @param multiplier множитель паузы для следующих повторов
+     * @param maxDelay   верхняя граница паузы
+     * @param jitter     случайный разброс паузы, чтобы конкуренты не сталкивались снова
+     */
+    public record Retry(
+
+            @DefaultValue("3")
+            int maxRetries,
+
+            @DefaultValue("20ms")
+            Duration delay,
+
+            @DefaultValue("2")
+            double multiplier,
+
+            @DefaultValue("200ms")
+            Duration maxDelay,
+
+            @DefaultValue("10ms")
+            Duration jitter
+    ) {
+    }
+}
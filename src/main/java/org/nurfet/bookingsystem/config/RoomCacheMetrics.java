@@ -0,0 +1,70 @@
+package org.nurfet.bookingsystem.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.nurfet.bookingsystem.entity.Room;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Метрики региона rooms второго уровня кэша Hibernate:
+ * booking.room.cache.hits / misses / puts и доля попаданий booking.room.cache.hit.ratio.
+ * Требует hibernate.generate_statistics.
+ */
+@Component
+public class RoomCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public RoomCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "booking.room.cache.hits", "Попадания в кэш комнат",
+                CacheRegionStatistics::getHitCount);
+        counter(registry, "booking.room.cache.misses", "Промахи кэша комнат",
+                CacheRegionStatistics::getMissCount);
+        counter(registry, "booking.room.cache.puts", "Записи в кэш комнат",
+                CacheRegionStatistics::getPutCount);
+
+        Gauge.builder("booking.room.cache.hit.ratio", this, RoomCacheMetrics::hitRatio)
+                .description("Доля попаданий в кэш комнат")
+                .register(registry);
+    }
+
+    double hitRatio() {
+        CacheRegionStatistics region = region();
+
+        if (region == null) {
+            return 0;
+        }
+
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? 0 : (double) region.getHitCount() / lookups;
+    }
+
+    private void counter(MeterRegistry registry,
+                         String name,
+                         String description,
+                         ToDoubleFunction<CacheRegionStatistics> value) {
+        FunctionCounter.builder(name, this, metrics -> {
+                    CacheRegionStatistics region = metrics.region();
+                    return region != null ? value.applyAsDouble(region) : 0;
+                })
+                .description(description)
+                .register(registry);
+    }
+
+    private CacheRegionStatistics region() {
+        return statistics.getCacheRegionStatistics(Room.CACHE_REGION);
+    }
+}
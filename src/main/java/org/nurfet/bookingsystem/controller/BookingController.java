@@ -6,22 +6,38 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.nurfet.bookingsystem.dto.request.CreateBookingBatchRequest;
 import org.nurfet.bookingsystem.dto.request.CreateBookingRequest;
+import org.nurfet.bookingsystem.dto.request.CreateBookingSeriesRequest;
 import org.nurfet.bookingsystem.dto.request.UpdateBookingRequest;
 import org.nurfet.bookingsystem.dto.response.ActiveBookingsCountResponse;
 import org.nurfet.bookingsystem.dto.response.AvailabilityResponse;
+import org.nurfet.bookingsystem.dto.response.BookingBatchResponse;
 import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.BookingSeriesResponse;
+import org.nurfet.bookingsystem.dto.response.CursorPage;
+import org.nurfet.bookingsystem.dto.response.RoomAvailabilityResponse;
+import org.nurfet.bookingsystem.dto.response.RoomFreeSlotsResponse;
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.entity.Booking;
 import org.nurfet.bookingsystem.entity.BookingStatus;
 import org.nurfet.bookingsystem.service.BookingService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/bookings")
@@ -30,6 +46,9 @@ import java.util.List;
 @Validated
 public class BookingController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final BookingService service;
 
     @Operation(summary = "Создание бронирования")
@@ -43,32 +62,83 @@ public class BookingController {
         return service.createBooking(request);
     }
 
-    @Operation(summary = "Частичное обновление бронирования")
+    @Operation(summary = "Пакетное создание бронирований",
+               description = "Каждый элемент обрабатывается отдельно: созданные и отклонённые "
+                       + "элементы возвращаются вместе, с результатом на каждой позиции")
+    @ApiResponse(responseCode = "200", description = "Пакет обработан (возможен частичный успех)")
+    @ApiResponse(responseCode = "400", description = "Ошибка валидации")
+    @PostMapping("/batch")
+    public BookingBatchResponse createBookings(@Valid @RequestBody CreateBookingBatchRequest request) {
+        return service.createBookings(request.bookings());
+    }
+
+    @Operation(summary = "Создание серии повторяющихся бронирований",
+               description = "Правило (частота, интервал, until/count) разворачивается в вхождения "
+                       + "на сервере. Если хотя бы одно вхождение занято, серия отклоняется целиком; "
+                       + "с skipConflicts занятые вхождения пропускаются и перечисляются в ответе")
+    @ApiResponse(responseCode = "201", description = "Серия создана")
+    @ApiResponse(responseCode = "409", description = "Конфликт времени")
+    @ApiResponse(responseCode = "404", description = "Комната не найдена")
+    @ApiResponse(responseCode = "400", description = "Ошибка валидации или некорректное правило повторения")
+    @PostMapping("/series")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingSeriesResponse createSeries(@Valid @RequestBody CreateBookingSeriesRequest request) {
+        return service.createSeries(request);
+    }
+
+    @Operation(summary = "Получить серию бронирований по ID")
+    @ApiResponse(responseCode = "404", description = "Серия не найдена")
+    @GetMapping("/series/{id}")
+    public BookingSeriesResponse getSeries(@PathVariable Long id) {
+        return service.getSeries(id);
+    }
+
+    @Operation(summary = "Частичное обновление бронирования",
+               description = "С заголовком If-Match (ETag из GET) изменение применяется, "
+                       + "только если бронирование не менялось с момента чтения")
     @ApiResponse(responseCode = "409", description = "Конфликт времени")
     @ApiResponse(responseCode = "404", description = "Бронирование не найдено")
     @ApiResponse(responseCode = "400", description = "Ошибка валидации")
+    @ApiResponse(responseCode = "412", description = "Версия из If-Match устарела")
     @PatchMapping("/{id}")
-    public BookingResponse updateBooking(@PathVariable Long id,
-                                         @Valid @RequestBody UpdateBookingRequest request) {
-        return service.updateBooking(id, request);
+    public ResponseEntity<BookingResponse> updateBooking(
+            @PathVariable Long id,
+            @Parameter(description = "ETag бронирования, полученный при чтении")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateBookingRequest request) {
+
+        BookingResponse response = service.updateBooking(id, request, EntityTags.expectedVersion(ifMatch));
+
+        return EntityTags.ok(response, response.version());
     }
 
     @Operation(summary = "Получить бронирование по ID")
     @ApiResponse(responseCode = "404", description = "Бронирование не найдено")
     @GetMapping("/{id}")
-    public BookingResponse getBooking(@PathVariable Long id) {
-        return service.getBooking(id);
+    public ResponseEntity<BookingResponse> getBooking(@PathVariable Long id) {
+        BookingResponse response = service.getBooking(id);
+
+        return EntityTags.ok(response, response.version());
     }
 
-    @Operation(summary = "Получить бронирования за период")
+    @Operation(summary = "Получить бронирования за период",
+               description = "Курсорная пагинация по (startTime, id): для следующей страницы "
+                       + "передайте nextCursor из предыдущего ответа")
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор")
     @ApiResponse(responseCode = "404", description = "Комната не найдена")
     @GetMapping("/room/{roomId}")
-    public List<BookingResponse> getByRoomAndTimeRange(
+    public CursorPage<BookingResponse> getByRoomAndTimeRange(
             @PathVariable Long roomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1–" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE)
+            @Min(value = 1, message = "Минимальный размер страницы 1")
+            @Max(value = MAX_PAGE_SIZE, message = "Максимальный размер страницы " + MAX_PAGE_SIZE) int size) {
 
-        return service.getBookingByRoomAndTimeRange(roomId, from, to);
+        return service.getBookingByRoomAndTimeRange(roomId, from, to, cursor, size);
     }
 
     @Operation(summary = "Получить активные бронирования комнаты")
@@ -78,19 +148,37 @@ public class BookingController {
         return service.getActiveBookingsByRoom(roomId);
     }
 
-    @Operation(summary = "Получить бронирования по email организатора")
+    @Operation(summary = "Получить бронирования по email организатора",
+               description = "Курсорная пагинация по (startTime, id)")
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор")
     @GetMapping("/organizer")
-    public List<BookingResponse> getBookingByOrganizerEmail(@RequestParam @NotBlank @Email String email) {
+    public CursorPage<BookingResponse> getBookingByOrganizerEmail(
+            @RequestParam @NotBlank @Email String email,
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1–" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE)
+            @Min(value = 1, message = "Минимальный размер страницы 1")
+            @Max(value = MAX_PAGE_SIZE, message = "Максимальный размер страницы " + MAX_PAGE_SIZE) int size) {
 
-        return service.getBookingsByOrganizerEmail(email);
+        return service.getBookingsByOrganizerEmail(email, cursor, size);
     }
 
-    @Operation(summary = "Получить бронирования по статусу")
+    @Operation(summary = "Получить бронирования по статусу",
+               description = "Курсорная пагинация по (startTime, id)")
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор")
     @GetMapping("/status")
-    public List<BookingResponse> getBookingByStatus(
+    public CursorPage<BookingResponse> getBookingByStatus(
             @Parameter(description = "Текущий статус бронирования", example = "CONFIRMED")
-            @RequestParam BookingStatus status) {
-        return service.getBookingsByStatus(status);
+            @RequestParam BookingStatus status,
+            @Parameter(description = "Курсор следующей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1–" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE)
+            @Min(value = 1, message = "Минимальный размер страницы 1")
+            @Max(value = MAX_PAGE_SIZE, message = "Максимальный размер страницы " + MAX_PAGE_SIZE) int size) {
+
+        return service.getBookingsByStatus(status, cursor, size);
     }
 
     @Operation(summary = "Подтвердить бронирование")
@@ -119,6 +207,50 @@ public class BookingController {
         return service.checkAvailability(roomId, startTime, endTime);
     }
 
+    @Operation(summary = "Проверка доступности временного слота сразу для нескольких комнат",
+               description = "Комнаты задаются списком roomIds; если он не указан — параметрами фильтра комнат")
+    @ApiResponse(responseCode = "400", description = "endTime не позже startTime или под фильтр подходит больше "
+            + BookingService.MAX_AVAILABILITY_ROOMS + " комнат")
+    @ApiResponse(responseCode = "404", description = "Комната из roomIds не найдена")
+    @GetMapping("/availability/rooms")
+    public List<RoomAvailabilityResponse> checkAvailableRooms(
+            @Parameter(description = "ID комнат (не более " + BookingService.MAX_AVAILABILITY_ROOMS + ")")
+            @RequestParam(required = false)
+            @Size(max = BookingService.MAX_AVAILABILITY_ROOMS) Set<Long> roomIds,
+            @Valid @ModelAttribute RoomFilter filter,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endTime) {
+
+        return service.checkAvailabilityForRooms(roomIds, filter, startTime, endTime);
+    }
+
+    @Operation(summary = "Поиск ближайших свободных слотов",
+               description = "Возвращает для каждой активной комнаты, подходящей под фильтр, до limit "
+                       + "свободных слотов длительностью durationMinutes в окне [from, to). "
+                       + "По умолчанию окно начинается сейчас; горизонт поиска не превышает 31 дня")
+    @ApiResponse(responseCode = "400", description = "Под фильтр подходит больше "
+            + BookingService.MAX_AVAILABILITY_ROOMS + " комнат")
+    @GetMapping("/free-slots")
+    public List<RoomFreeSlotsResponse> findFreeSlots(
+            @Valid @ModelAttribute RoomFilter filter,
+            @Parameter(description = "Длительность слота в минутах ("
+                    + Booking.MIN_DURATION_MINUTES + "–" + Booking.MAX_DURATION_MINUTES + ")")
+            @RequestParam
+            @Min(value = Booking.MIN_DURATION_MINUTES,
+                    message = "Минимальная длительность " + Booking.MIN_DURATION_MINUTES + " минут")
+            @Max(value = Booking.MAX_DURATION_MINUTES,
+                    message = "Максимальная длительность " + Booking.MAX_DURATION_MINUTES + " минут")
+            int durationMinutes,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Максимальное число слотов на комнату (1–50)")
+            @RequestParam(defaultValue = "5")
+            @Min(value = 1, message = "Минимум 1 слот")
+            @Max(value = 50, message = "Не более 50 слотов") int limit) {
+
+        return service.findFreeSlots(filter, Duration.ofMinutes(durationMinutes), from, to, limit);
+    }
+
     @Operation(summary = "Количество активных бронирований комнаты")
     @GetMapping("/room/{roomId}/count")
     public ActiveBookingsCountResponse countActiveBookingByRoom(@PathVariable Long roomId) {
@@ -0,0 +1,55 @@
+package org.nurfet.bookingsystem.controller;
+
+import org.nurfet.bookingsystem.exception.StaleVersionException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag из версии строки (@Version) и разбор If-Match.
+ * Поддерживается один тег или "*"; слабый тег W/"n" сравнивается как "n".
+ */
+final class EntityTags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    /**
+     * 200 OK с телом и ETag; без версии (например, архивное бронирование) — без ETag.
+     */
+    static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+
+        if (version != null) {
+            builder.eTag(String.valueOf(version));
+        }
+
+        return builder.body(body);
+    }
+
+    /**
+     * Ожидаемая версия из If-Match; null — заголовка нет или он равен "*".
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new StaleVersionException(ifMatch);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.nurfet.bookingsystem.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -8,16 +9,24 @@ import lombok.RequiredArgsConstructor;
 import org.nurfet.bookingsystem.dto.request.CreateRoomRequest;
 import org.nurfet.bookingsystem.dto.request.UpdateRoomRequest;
 import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.dto.spec.RoomCountMode;
 import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.dto.spec.RoomSearchMode;
 import org.nurfet.bookingsystem.service.RoomService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,6 +40,8 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Validated
 public class RoomController {
 
+    private static final String ID_VARIABLE = "{id}";
+
     private final RoomService service;
 
     @Operation(summary = "Создание переговорной комнаты")
@@ -42,23 +53,31 @@ public class RoomController {
         return service.createRoom(request);
     }
 
-    @Operation(summary = "Частичное обновление переговорной комнаты")
+    @Operation(summary = "Частичное обновление переговорной комнаты",
+               description = "С заголовком If-Match (ETag из GET) изменение применяется, "
+                       + "только если комната не менялась с момента чтения")
     @ApiResponse(responseCode = "404", description = "Комната не найдена")
     @ApiResponse(responseCode = "400", description = "Ошибка валидации")
+    @ApiResponse(responseCode = "412", description = "Версия из If-Match устарела")
     @PatchMapping("/{id}")
-    public RoomResponse updateRoom(@PathVariable Long id,
-                                   @Valid @RequestBody UpdateRoomRequest request) {
+    public ResponseEntity<RoomResponse> updateRoom(
+            @PathVariable Long id,
+            @Parameter(description = "ETag комнаты, полученный при чтении")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateRoomRequest request) {
+
+        RoomResponse response = service.updateRoom(id, request, EntityTags.expectedVersion(ifMatch));
 
-        return service.updateRoom(id, request);
+        return EntityTags.ok(response, response.version());
     }
 
     @Operation(summary = "Получить комнату по ID")
     @ApiResponse(responseCode = "404", description = "Комната не найдена")
     @GetMapping("/{id}")
-    public EntityModel<RoomResponse> getRoom(@PathVariable Long id) {
-        RoomResponse room = service.getRoom(id);
-        return EntityModel.of(room,
-                linkTo(methodOn(RoomController.class).getRoom(id)).withSelfRel());
+    public ResponseEntity<EntityModel<RoomResponse>> getRoom(@PathVariable Long id) {
+        RoomResponse response = service.getRoom(id);
+
+        return EntityTags.ok(roomModels().toModel(response), response.version());
     }
 
     @Operation(summary = "Получить список комнат")
@@ -69,17 +88,32 @@ public class RoomController {
 
     @Operation(summary = "Поиск комнаты с параметрами")
     @GetMapping("/search")
-    public PagedModel<EntityModel<RoomResponse>> searchRooms(
+    public CollectionModel<EntityModel<RoomResponse>> searchRooms(
             @Valid @ModelAttribute RoomFilter filter,
+            @Parameter(description = "SUBSTRING — вхождение подстроки, SIMILARITY — по убыванию сходства")
+            @RequestParam(defaultValue = "SUBSTRING") RoomSearchMode mode,
+            @Parameter(description = "EXACT — точный count(*), ESTIMATE — оценка по плану запроса, "
+                    + "NONE — без подсчёта, только признак следующей страницы")
+            @RequestParam(defaultValue = "EXACT") RoomCountMode count,
             @PageableDefault(size = 3, sort = "name", direction = Sort.Direction.ASC) Pageable pageable,
-            PagedResourcesAssembler<RoomResponse> assembler) {
+            PagedResourcesAssembler<RoomResponse> pagedAssembler,
+            SlicedResourcesAssembler<RoomResponse> slicedAssembler) {
+
+        if (count == RoomCountMode.EXACT) {
+            Page<RoomResponse> page = mode == RoomSearchMode.SIMILARITY
+                    ? service.searchRoomsBySimilarity(filter, pageable)
+                    : service.searchRoom(filter, pageable);
+
+            return pagedAssembler.toModel(page, roomModels());
+        }
 
-        Page<RoomResponse> page = service.searchRoom(filter, pageable);
+        Slice<RoomResponse> slice = service.searchRoomWithoutCount(filter, mode, count, pageable);
 
-        return assembler.toModel(page, room ->
-                EntityModel.of(room,
-                        linkTo(methodOn(RoomController.class)
-                                .getRoom(room.id())).withSelfRel()));
+        RepresentationModelAssembler<RoomResponse, EntityModel<RoomResponse>> roomModels = roomModels();
+
+        return slice instanceof Page<RoomResponse> page
+                ? pagedAssembler.toModel(page, roomModels)
+                : slicedAssembler.toModel(slice, roomModels);
     }
 
     @Operation(summary = "Деактивировать комнату")
@@ -88,4 +122,16 @@ public class RoomController {
     public RoomResponse deactivate(@PathVariable Long id) {
         return service.deactivate(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Ссылки self на комнаты. Шаблон .../rooms/{id} разрешается через methodOn один раз
+     * на запрос, дальше id дописывается к готовому префиксу — без прокси и разбора
+     * шаблона на каждую комнату страницы. Href совпадает с linkTo(methodOn(...).getRoom(id)).
+     */
+    private static RepresentationModelAssembler<RoomResponse, EntityModel<RoomResponse>> roomModels() {
+        String template = linkTo(methodOn(RoomController.class).getRoom(null)).withSelfRel().getHref();
+        String prefix = template.substring(0, template.lastIndexOf(ID_VARIABLE));
+
+        return room -> EntityModel.of(room, Link.of(prefix + room.id()));
+    }
+}
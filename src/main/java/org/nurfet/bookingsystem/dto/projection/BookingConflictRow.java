@@ -0,0 +1,34 @@
+package org.nurfet.bookingsystem.dto.projection;
+
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+
+import java.time.Instant;
+
+/**
+ * Строка запроса доступности: комната, одно конфликтующее бронирование
+ * (или null-поля, если конфликтов нет) и общее число конфликтов.
+ */
+public record BookingConflictRow(
+        Long roomId,
+        String roomName,
+        Long bookingId,
+        String title,
+        String organizerEmail,
+        Instant startTime,
+        Instant endTime,
+        BookingStatus status,
+        Instant createdAt,
+        Instant updatedAt,
+        Long totalConflicts
+) {
+
+    public boolean hasBooking() {
+        return bookingId != null;
+    }
+
+    public BookingResponse toResponse() {
+        return BookingResponse.of(bookingId, roomId, roomName, title, organizerEmail,
+                startTime, endTime, status, createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,40 @@
+package org.nurfet.bookingsystem.dto.projection;
+
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.event.BookingSlot;
+
+import java.time.Instant;
+
+/**
+ * Результат условного перехода статуса (UPDATE ... RETURNING):
+ * бронирование после изменения и статус, который был до него.
+ */
+public record BookingTransitionRow(
+        Long id,
+        Long roomId,
+        String roomName,
+        String title,
+        String organizerEmail,
+        Instant startTime,
+        Instant endTime,
+        String status,
+        String previousStatus,
+        Instant createdAt,
+        Instant updatedAt,
+        Long version
+) {
+
+    public BookingSlot previous() {
+        return new BookingSlot(id, roomId, startTime, endTime, BookingStatus.valueOf(previousStatus));
+    }
+
+    public BookingSlot current() {
+        return new BookingSlot(id, roomId, startTime, endTime, BookingStatus.valueOf(status));
+    }
+
+    public BookingResponse toResponse() {
+        return new BookingResponse(id, roomId, roomName, title, organizerEmail,
+                startTime, endTime, BookingStatus.valueOf(status), createdAt, updatedAt, version);
+    }
+}
@@ -0,0 +1,27 @@
+package org.nurfet.bookingsystem.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(
+        description = "Запрос на пакетное создание бронирований"
+)
+public record CreateBookingBatchRequest(
+
+        @Schema(
+                description = "Бронирования в порядке приоритета: при пересечении внутри пакета "
+                        + "создаётся элемент, стоящий раньше",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotEmpty(message = "Пакет не должен быть пустым")
+        @Size(max = MAX_SIZE, message = "В пакете не больше " + MAX_SIZE + " бронирований")
+        List<@Valid @NotNull CreateBookingRequest> bookings
+) {
+
+    public static final int MAX_SIZE = 500;
+}
@@ -0,0 +1,134 @@
+package org.nurfet.bookingsystem.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import org.nurfet.bookingsystem.entity.RecurrenceFrequency;
+import org.nurfet.bookingsystem.service.series.RecurrenceExpander;
+import org.nurfet.bookingsystem.validation.TimeRangeValidatable;
+import org.nurfet.bookingsystem.validation.annotation.EndAfterStart;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+@Schema(
+        description = "Запрос на создание серии повторяющихся бронирований"
+)
+@EndAfterStart
+public record CreateBookingSeriesRequest(
+
+        @Schema(
+                description = "ID переговорной комнаты для бронирования",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotNull(message = "Необходимо указать ID комнаты")
+        Long roomId,
+
+        @Schema(
+                description = "Название встречи",
+                maxLength = 200,
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotBlank(message = "Укажите название встречи")
+        @Size(max = 200, message = "Название не должно превышать 200 символов")
+        String title,
+
+        @Schema(
+                description = "Email организатора встречи",
+                maxLength = 254,
+                format = "email",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotBlank(message = "Укажите Email организатора")
+        @Pattern(
+                regexp = "^(?=.{1,254}$)(?=.{1,64}@)"
+                        + "[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+"
+                        + "(\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*@"
+                        + "[A-Za-z0-9]([A-Za-z0-9-]{0,61}[A-Za-z0-9])?"
+                        + "(\\.[A-Za-z0-9]([A-Za-z0-9-]{0,61}[A-Za-z0-9])?)+$",
+                message = "Некорректный адрес электронной почты"
+        )
+        String organizerEmail,
+
+        @Schema(
+                description = "Начало первой встречи серии (ISO 8601 UTC)",
+                example = "2026-01-05T09:00:00Z",
+                type = "string",
+                format = "date-time",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotNull(message = "Укажите дату начала встречи")
+        @Future(message = "Время должно быть в будущем")
+        Instant startTime,
+
+        @Schema(
+                description = "Окончание первой встречи серии (ISO 8601 UTC)",
+                example = "2026-01-05T10:00:00Z",
+                type = "string",
+                format = "date-time",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotNull(message = "Укажите время окончания встречи")
+        @Future(message = "Время должно быть в будущем")
+        Instant endTime,
+
+        @Schema(
+                description = "Частота повторения",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotNull(message = "Укажите частоту повторения")
+        RecurrenceFrequency frequency,
+
+        @Schema(
+                description = "Интервал: каждые N дней или недель (по умолчанию 1)",
+                example = "1",
+                minimum = "1",
+                maximum = "52"
+        )
+        @Min(value = 1, message = "Интервал должен быть не меньше 1")
+        @Max(value = 52, message = "Интервал не должен превышать 52")
+        Integer interval,
+
+        @Schema(
+                description = "Последний допустимый момент начала встречи (включительно, ISO 8601 UTC)",
+                example = "2026-03-30T09:00:00Z",
+                type = "string",
+                format = "date-time"
+        )
+        Instant until,
+
+        @Schema(
+                description = "Число встреч в серии, включая первую",
+                example = "12",
+                minimum = "1",
+                maximum = "" + RecurrenceExpander.MAX_OCCURRENCES
+        )
+        @Min(value = 1, message = "Число повторений должно быть не меньше 1")
+        @Max(value = RecurrenceExpander.MAX_OCCURRENCES,
+                message = "Число повторений не должно превышать " + RecurrenceExpander.MAX_OCCURRENCES)
+        Integer count,
+
+        @Schema(
+                description = "Часовой пояс, в местном времени которого повторяются встречи (по умолчанию UTC)",
+                example = "Europe/Moscow",
+                type = "string"
+        )
+        ZoneId timeZone,
+
+        @Schema(
+                description = "Пропустить занятые вхождения вместо отказа всей серии",
+                defaultValue = "false"
+        )
+        boolean skipConflicts
+) implements TimeRangeValidatable {
+
+    public static final int DEFAULT_INTERVAL = 1;
+
+    public int intervalOrDefault() {
+        return interval == null ? DEFAULT_INTERVAL : interval;
+    }
+
+    public ZoneId timeZoneOrDefault() {
+        return timeZone == null ? ZoneOffset.UTC : timeZone;
+    }
+}
@@ -13,17 +13,21 @@ public record AvailabilityResponse(
         boolean available,
 
         @Schema(
-                description = "Список конфликтующих бронирований (только если available = false)",
+                description = "Список конфликтующих бронирований (только если available = false), "
+                        + "не длиннее booking.availability.conflict-limit",
                 example = "true"
         )
-        List<BookingResponse> conflicts
+        List<BookingResponse> conflicts,
+
+        @Schema(description = "Общее число конфликтующих бронирований")
+        long totalConflicts
 ) {
 
     public static AvailabilityResponse free() {
-        return new AvailabilityResponse(true, List.of());
+        return new AvailabilityResponse(true, List.of(), 0);
     }
 
-    public static AvailabilityResponse unavailable(List<BookingResponse> conflicts) {
-        return new AvailabilityResponse(false, conflicts);
+    public static AvailabilityResponse unavailable(List<BookingResponse> conflicts, long totalConflicts) {
+        return new AvailabilityResponse(false, conflicts, totalConflicts);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат одного элемента пакетного создания")
+public record BookingBatchItemResponse(
+
+        @Schema(description = "Позиция элемента в запросе (с 0)")
+        int index,
+
+        @Schema(description = "Итог обработки", example = "CREATED")
+        BookingBatchItemStatus status,
+
+        @Schema(description = "Созданное бронирование (только если status = CREATED)")
+        BookingResponse booking,
+
+        @Schema(description = "Причина отказа (только если status != CREATED)")
+        String message
+) {
+
+    public static BookingBatchItemResponse created(int index, BookingResponse booking) {
+        return new BookingBatchItemResponse(index, BookingBatchItemStatus.CREATED, booking, null);
+    }
+
+    public static BookingBatchItemResponse rejected(int index, BookingBatchItemStatus status, String message) {
+        return new BookingBatchItemResponse(index, status, null, message);
+    }
+
+    public boolean isCreated() {
+        return status == BookingBatchItemStatus.CREATED;
+    }
+}
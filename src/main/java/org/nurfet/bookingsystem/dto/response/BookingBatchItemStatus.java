@@ -0,0 +1,23 @@
+package org.nurfet.bookingsystem.dto.response;
+
+/**
+ * Итог обработки одного элемента пакетного создания.
+ */
+public enum BookingBatchItemStatus {
+
+    CREATED,
+
+    /**
+     * Пересечение с существующим бронированием или с более ранним элементом пакета.
+     */
+    CONFLICT,
+
+    ROOM_NOT_FOUND,
+
+    ROOM_NOT_AVAILABLE,
+
+    /**
+     * Интервал нарушает ограничения Booking на длительность.
+     */
+    INVALID
+}
@@ -0,0 +1,25 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Результат пакетного создания бронирований")
+public record BookingBatchResponse(
+
+        @Schema(description = "Число созданных бронирований")
+        int created,
+
+        @Schema(description = "Число отклонённых элементов")
+        int rejected,
+
+        @Schema(description = "Результаты в порядке элементов запроса")
+        List<BookingBatchItemResponse> items
+) {
+
+    public static BookingBatchResponse of(List<BookingBatchItemResponse> items) {
+        int created = (int) items.stream().filter(BookingBatchItemResponse::isCreated).count();
+
+        return new BookingBatchResponse(created, items.size() - created, items);
+    }
+}
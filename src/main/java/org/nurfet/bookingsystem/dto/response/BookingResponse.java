@@ -1,5 +1,6 @@
 package org.nurfet.bookingsystem.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.nurfet.bookingsystem.entity.BookingStatus;
 
@@ -65,20 +66,55 @@ public record BookingResponse(
                 type = "string",
                 format = "date-time"
         )
-        Instant updatedAt
+        Instant updatedAt,
+
+        /*
+        Версия строки для If-Match. В тело не попадает — передаётся заголовком ETag.
+        Списочные проекции версию не читают (null), архивные бронирования её не имеют.
+        */
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
 
-    public static BookingResponse of(
+    /**
+     * Конструктор для JPQL/Criteria-проекций: длительность вычисляется из интервала.
+     */
+    public BookingResponse(
             Long id, Long roomId, String roomName,
             String title, String organizerEmail,
             Instant startTime, Instant endTime,
             BookingStatus status,
             Instant createdAt, Instant updatedAt) {
 
-        long durationMinutes = Duration.between(startTime, endTime).toMinutes();
+        this(id, roomId, roomName, title,
+                organizerEmail, startTime, endTime,
+                status, createdAt, updatedAt, null);
+    }
+
+    public BookingResponse(
+            Long id, Long roomId, String roomName,
+            String title, String organizerEmail,
+            Instant startTime, Instant endTime,
+            BookingStatus status,
+            Instant createdAt, Instant updatedAt,
+            Long version) {
+
+        this(id, roomId, roomName, title,
+                organizerEmail, startTime, endTime,
+                Duration.between(startTime, endTime).toMinutes(),
+                status, createdAt, updatedAt, version);
+    }
+
+    public static BookingResponse of(
+            Long id, Long roomId, String roomName,
+            String title, String organizerEmail,
+            Instant startTime, Instant endTime,
+            BookingStatus status,
+            Instant createdAt, Instant updatedAt) {
 
         return new BookingResponse(id, roomId, roomName, title,
-                organizerEmail, startTime, endTime, durationMinutes,
+                organizerEmail, startTime, endTime,
                 status, createdAt, updatedAt);
     }
 }
\ No newline at end of file
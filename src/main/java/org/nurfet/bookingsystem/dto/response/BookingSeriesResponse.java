@@ -0,0 +1,64 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.nurfet.bookingsystem.entity.BookingSeries;
+import org.nurfet.bookingsystem.entity.RecurrenceFrequency;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+@Schema(description = "Серия повторяющихся бронирований")
+public record BookingSeriesResponse(
+
+        @Schema(description = "ID серии")
+        Long id,
+
+        @Schema(description = "ID переговорной комнаты")
+        Long roomId,
+
+        @Schema(description = "Название встречи")
+        String title,
+
+        @Schema(description = "Email организатора")
+        String organizerEmail,
+
+        @Schema(description = "Частота повторения")
+        RecurrenceFrequency frequency,
+
+        @Schema(description = "Интервал повторения")
+        int interval,
+
+        @Schema(description = "Последний допустимый момент начала встречи", type = "string", format = "date-time")
+        Instant until,
+
+        @Schema(description = "Число встреч в серии по правилу")
+        Integer count,
+
+        @Schema(description = "Часовой пояс повторения", type = "string", example = "Europe/Moscow")
+        ZoneId timeZone,
+
+        @Schema(description = "Бронирования серии по времени начала")
+        List<BookingResponse> bookings,
+
+        @Schema(description = "Вхождения, пропущенные из-за занятости комнаты (только в ответе на создание)")
+        List<TimeSlotResponse> skipped
+) {
+
+    public static BookingSeriesResponse of(BookingSeries series,
+                                           List<BookingResponse> bookings,
+                                           List<TimeSlotResponse> skipped) {
+        return new BookingSeriesResponse(
+                series.getId(),
+                series.getRoom().getId(),
+                series.getTitle(),
+                series.getOrganizerEmail(),
+                series.getFrequency(),
+                series.getInterval(),
+                series.getUntil(),
+                series.getCount(),
+                series.getZone(),
+                bookings,
+                skipped);
+    }
+}
@@ -0,0 +1,16 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница результатов с курсорной (keyset) пагинацией")
+public record CursorPage<T>(
+
+        @Schema(description = "Элементы страницы")
+        List<T> items,
+
+        @Schema(description = "Курсор следующей страницы; null, если страница последняя")
+        String nextCursor
+) {
+}
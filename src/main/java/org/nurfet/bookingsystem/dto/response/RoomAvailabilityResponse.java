@@ -0,0 +1,22 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Доступность временного слота в одной из запрошенных комнат")
+public record RoomAvailabilityResponse(
+
+        @Schema(description = "ID комнаты")
+        Long roomId,
+
+        @Schema(description = "Название комнаты")
+        String roomName,
+
+        @Schema(description = "Доступен ли запрошенный временной слот в комнате")
+        boolean available,
+
+        @Schema(description = "Список конфликтующих бронирований (только если available = false)")
+        List<BookingResponse> conflicts
+) {
+}
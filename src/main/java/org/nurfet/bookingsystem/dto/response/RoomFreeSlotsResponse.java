@@ -0,0 +1,22 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Ближайшие свободные слоты комнаты")
+public record RoomFreeSlotsResponse(
+
+        @Schema(description = "ID комнаты")
+        Long roomId,
+
+        @Schema(description = "Название комнаты")
+        String roomName,
+
+        @Schema(description = "Вместимость комнаты (число мест)")
+        Integer capacity,
+
+        @Schema(description = "Свободные слоты в порядке начала")
+        List<TimeSlotResponse> slots
+) {
+}
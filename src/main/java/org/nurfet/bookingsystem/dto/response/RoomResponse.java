@@ -1,5 +1,6 @@
 package org.nurfet.bookingsystem.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.hateoas.server.core.Relation;
 
@@ -54,6 +55,11 @@ public record RoomResponse(
                 type = "string",
                 format = "date-time"
         )
-        Instant updatedAt
+        Instant updatedAt,
+
+        // Версия строки для If-Match; передаётся заголовком ETag, а не в теле
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
 }
\ No newline at end of file
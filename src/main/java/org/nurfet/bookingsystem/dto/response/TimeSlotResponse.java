@@ -0,0 +1,26 @@
+package org.nurfet.bookingsystem.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Временной слот")
+public record TimeSlotResponse(
+
+        @Schema(
+                description = "Начало слота (ISO 8601 UTC)",
+                example = "2026-01-01T09:00:00Z",
+                type = "string",
+                format = "date-time"
+        )
+        Instant startTime,
+
+        @Schema(
+                description = "Окончание слота (ISO 8601 UTC)",
+                example = "2026-01-01T10:00:00Z",
+                type = "string",
+                format = "date-time"
+        )
+        Instant endTime
+) {
+}
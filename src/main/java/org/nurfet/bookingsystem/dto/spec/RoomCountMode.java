@@ -0,0 +1,22 @@
+package org.nurfet.bookingsystem.dto.spec;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Подсчёт общего числа найденных комнат")
+public enum RoomCountMode {
+
+    /**
+     * Точный count(*) отдельным запросом.
+     */
+    EXACT,
+
+    /**
+     * Оценка по плану запроса; totalElements приблизителен.
+     */
+    ESTIMATE,
+
+    /**
+     * Без подсчёта: только признак следующей страницы (Slice).
+     */
+    NONE
+}
@@ -0,0 +1,17 @@
+package org.nurfet.bookingsystem.dto.spec;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Режим поиска по названию и описанию комнаты")
+public enum RoomSearchMode {
+
+    /**
+     * Вхождение подстроки без учёта регистра, порядок — по параметру sort.
+     */
+    SUBSTRING,
+
+    /**
+     * Вхождение подстроки или похожее слово (pg_trgm), по убыванию сходства.
+     */
+    SIMILARITY
+}
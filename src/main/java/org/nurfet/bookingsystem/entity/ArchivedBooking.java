@@ -0,0 +1,56 @@
+package org.nurfet.bookingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Завершённое бронирование, перенесённое из bookings в архив.
+ * Строки пишет только архивация (BookingArchiver), приложение их лишь читает.
+ * Внешнего ключа на rooms у архива нет, поэтому комната хранится как id
+ * и название на момент архивации, без связи с Room.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@NoArgsConstructor
+@Getter
+public class ArchivedBooking {
+
+    @Id
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "room_name")
+    private String roomName;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "organizer_email", nullable = false)
+    private String organizerEmail;
+
+    @Column(name = "start_time", nullable = false)
+    private Instant startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private Instant endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BookingStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
@@ -14,8 +14,18 @@ import java.util.Objects;
 @Getter
 public abstract class BaseEntity {
 
+    /**
+     * Шаг последовательностей rooms_id_seq и bookings_id_seq (V10) — размер блока id.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Последовательность своя у каждой сущности ({@code @SequenceGenerator} на классе).
+     * В отличие от IDENTITY, id известен до INSERT, поэтому Hibernate может
+     * отправлять вставки пакетами (hibernate.jdbc.batch_size).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @CreatedDate
@@ -26,6 +36,14 @@ public abstract class BaseEntity {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /**
+     * Версия строки: растёт при каждом UPDATE, в том числе из нативных запросов.
+     * Наружу отдаётся как ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
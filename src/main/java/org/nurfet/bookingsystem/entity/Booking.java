@@ -12,12 +12,16 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "bookings")
+@SequenceGenerator(sequenceName = "bookings_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
 @NoArgsConstructor
 @Getter
 public class Booking extends BaseEntity {
 
-    private static final Duration MIN_DURATION = Duration.ofMinutes(15);
-    private static final Duration MAX_DURATION = Duration.ofHours(8);
+    public static final int MIN_DURATION_MINUTES = 15;
+    public static final int MAX_DURATION_MINUTES = 480;
+
+    public static final Duration MIN_DURATION = Duration.ofMinutes(MIN_DURATION_MINUTES);
+    public static final Duration MAX_DURATION = Duration.ofMinutes(MAX_DURATION_MINUTES);
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "room_id", nullable = false)
@@ -39,6 +43,13 @@ public class Booking extends BaseEntity {
     @Column(name = "status", nullable = false)
     private BookingStatus status;
 
+    /**
+     * Серия, вхождением которой является бронирование; null — разовое бронирование.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "series_id")
+    private BookingSeries series;
+
     public void setRoom(Room room) {
         this.room = Objects.requireNonNull(room, "Room cannot be null");
     }
@@ -81,6 +92,11 @@ public class Booking extends BaseEntity {
         this.status = BookingStatus.PENDING;
     }
 
+    public Booking(BookingSeries series, Instant startTime, Instant endTime) {
+        this(series.getRoom(), series.getTitle(), series.getOrganizerEmail(), startTime, endTime);
+        this.series = series;
+    }
+
     public Duration getDuration() {
         return Duration.between(startTime, endTime);
     }
@@ -0,0 +1,96 @@
+package org.nurfet.bookingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Повторяющаяся встреча: правило повторения (частота, интервал, until/count)
+ * и время первого вхождения. Вхождения — обычные {@link Booking} со ссылкой на серию.
+ */
+@Entity
+@Table(name = "booking_series")
+@SequenceGenerator(sequenceName = "booking_series_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
+@NoArgsConstructor
+@Getter
+public class BookingSeries extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "room_id", nullable = false)
+    private Room room;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "organizer_email", nullable = false)
+    private String organizerEmail;
+
+    @Column(name = "start_time", nullable = false)
+    private Instant startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private Instant endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private int interval;
+
+    @Column(name = "until_time")
+    private Instant until;
+
+    @Column(name = "occurrence_count")
+    private Integer count;
+
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone;
+
+    public BookingSeries(Room room, String title, String organizerEmail,
+                         Instant startTime, Instant endTime,
+                         RecurrenceFrequency frequency, int interval, Instant until, Integer count,
+                         ZoneId timeZone) {
+        this.room = Objects.requireNonNull(room, "Room cannot be null");
+        this.title = Objects.requireNonNull(title, "Name cannot be null");
+        this.organizerEmail = Objects.requireNonNull(organizerEmail, "Organizer email cannot be null");
+        this.startTime = Objects.requireNonNull(startTime, "Start time cannot be null");
+        this.endTime = Objects.requireNonNull(endTime, "End time cannot be null");
+        this.frequency = Objects.requireNonNull(frequency, "Frequency cannot be null");
+
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+
+        if (until == null && count == null) {
+            throw new IllegalArgumentException("Series must be bounded by until or count");
+        }
+
+        this.interval = interval;
+        this.until = until;
+        this.count = count;
+        this.timeZone = Objects.requireNonNull(timeZone, "Time zone cannot be null").getId();
+    }
+
+    public ZoneId getZone() {
+        return ZoneId.of(timeZone);
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSeries{" +
+                "id=" + getId() +
+                ", room=" + room +
+                ", title='" + title + '\'' +
+                ", startTime=" + startTime +
+                ", frequency=" + frequency +
+                ", interval=" + interval +
+                ", until=" + until +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,28 @@
+package org.nurfet.bookingsystem.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Частота повторения серии; шаг между вхождениями — интервал в единицах unit
+ * по местному календарю серии.
+ */
+@Schema(
+        description = "Частота повторения серии бронирований",
+        enumAsRef = true
+)
+@Getter
+@RequiredArgsConstructor
+public enum RecurrenceFrequency {
+
+    @Schema(description = "Каждый день")
+    DAILY(ChronoUnit.DAYS),
+
+    @Schema(description = "Каждую неделю")
+    WEEKLY(ChronoUnit.WEEKS);
+
+    private final ChronoUnit unit;
+}
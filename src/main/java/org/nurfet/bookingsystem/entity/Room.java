@@ -3,15 +3,27 @@ package org.nurfet.bookingsystem.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
+/**
+ * Комнаты лежат во втором уровне кэша Hibernate (регион rooms, см. application.conf):
+ * findById и ленивая загрузка booking.room обходятся без запроса в БД.
+ * Изменения через сущность (RoomService.updateRoom, в том числе деактивация)
+ * обновляют кэш при коммите.
+ */
 @Entity
 @Table(name = "rooms")
+@SequenceGenerator(sequenceName = "rooms_id_seq", allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Room.CACHE_REGION)
 @NoArgsConstructor
 @Getter
 public class Room extends BaseEntity {
 
+    public static final String CACHE_REGION = "rooms";
+
     @Column(name = "name", unique = true, nullable = false)
     private String name;
 
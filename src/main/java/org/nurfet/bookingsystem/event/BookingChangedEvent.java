@@ -0,0 +1,14 @@
+package org.nurfet.bookingsystem.event;
+
+/**
+ * Публикуется BookingService при любом изменении бронирования.
+ *
+ * @param previous состояние до изменения (null для нового бронирования)
+ * @param current  состояние после изменения
+ */
+public record BookingChangedEvent(BookingSlot previous, BookingSlot current) {
+
+    public static BookingChangedEvent created(BookingSlot current) {
+        return new BookingChangedEvent(null, current);
+    }
+}
@@ -0,0 +1,32 @@
+package org.nurfet.bookingsystem.event;
+
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+
+import java.time.Instant;
+
+/**
+ * Неизменяемый снимок бронирования: комната, интервал и статус.
+ */
+public record BookingSlot(Long id,
+                          Long roomId,
+                          Instant startTime,
+                          Instant endTime,
+                          BookingStatus status) {
+
+    public static BookingSlot of(Booking booking) {
+        return new BookingSlot(booking.getId(),
+                booking.getRoom().getId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getStatus());
+    }
+
+    public boolean isActive() {
+        return status.isActive();
+    }
+
+    public boolean overlaps(Instant otherStart, Instant otherEnd) {
+        return startTime.isBefore(otherEnd) && endTime.isAfter(otherStart);
+    }
+}
@@ -0,0 +1,10 @@
+package org.nurfet.bookingsystem.event;
+
+import java.time.Instant;
+
+/**
+ * Публикуется после того, как активные бронирования с end_time < expiredBefore
+ * переведены в EXPIRED.
+ */
+public record BookingsExpiredEvent(Instant expiredBefore) {
+}
@@ -0,0 +1,14 @@
+package org.nurfet.bookingsystem.event;
+
+import org.nurfet.bookingsystem.dto.response.RoomResponse;
+
+/**
+ * Публикуется при сохранении, изменении или удалении комнаты.
+ * current == null — комната удалена.
+ */
+public record RoomChangedEvent(Long roomId, RoomResponse current) {
+
+    public static RoomChangedEvent removed(Long roomId) {
+        return new RoomChangedEvent(roomId, null);
+    }
+}
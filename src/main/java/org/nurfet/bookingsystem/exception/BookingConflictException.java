@@ -1,12 +1,15 @@
 package org.nurfet.bookingsystem.exception;
 
 import lombok.Getter;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.Instant;
 
 @Getter
 public class BookingConflictException extends BusinessException {
 
+    public static final String OVERLAP_CONSTRAINT = "excl_booking_overlap";
+
     private final Long roomId;
     private final Instant requestedStart;
     private final Instant requestedEnd;
@@ -20,4 +23,12 @@ public class BookingConflictException extends BusinessException {
         this.requestedStart = requestedStart;
         this.requestedEnd = requestedEnd;
     }
+
+    /**
+     * Вызвано ли нарушение целостности ограничением excl_booking_overlap.
+     */
+    public static boolean isOverlapViolation(DataIntegrityViolationException ex) {
+        String cause = ex.getMostSpecificCause().getMessage();
+        return cause != null && cause.contains(OVERLAP_CONSTRAINT);
+    }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -60,6 +61,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 HttpStatus.CONFLICT, ex.getMessage(), ex.getErrorCode(), request);
     }
 
+    @ExceptionHandler(StaleVersionException.class)
+    public ProblemDetail handleStaleVersion(
+            StaleVersionException ex, HttpServletRequest request) {
+
+        log.debug("Stale version: {}", ex.getMessage());
+
+        ProblemDetail problem = createProblemDetail(
+                HttpStatus.PRECONDITION_FAILED, ex.getMessage(), ex.getErrorCode(), request);
+
+        if (ex.getCurrentVersion() != null) {
+            problem.setProperty("currentVersion", ex.getCurrentVersion());
+        }
+
+        return problem;
+    }
+
     @ExceptionHandler(RoomNotAvailableException.class)
     public ProblemDetail handleRoomNotAvailable(
             RoomNotAvailableException ex, HttpServletRequest request) {
@@ -70,6 +87,36 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 HttpStatus.UNPROCESSABLE_CONTENT, ex.getMessage(), ex.getErrorCode(), request);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursor(
+            InvalidCursorException ex, HttpServletRequest request) {
+
+        log.debug("Invalid cursor: {}", ex.getMessage());
+
+        return createProblemDetail(
+                HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getErrorCode(), request);
+    }
+
+    @ExceptionHandler(InvalidRecurrenceException.class)
+    public ProblemDetail handleInvalidRecurrence(
+            InvalidRecurrenceException ex, HttpServletRequest request) {
+
+        log.debug("Invalid recurrence: {}", ex.getMessage());
+
+        return createProblemDetail(
+                HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getErrorCode(), request);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ProblemDetail handleInvalidRequest(
+            InvalidRequestException ex, HttpServletRequest request) {
+
+        log.debug("Invalid request: {}", ex.getMessage());
+
+        return createProblemDetail(
+                HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getErrorCode(), request);
+    }
+
     // ========================
     // Validation
     // ========================
@@ -112,7 +159,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         String cause = ex.getMostSpecificCause().getMessage();
         URI instance = URI.create(request.getRequestURI());
 
-        if (cause != null && cause.contains("excl_booking_overlap")) {
+        if (BookingConflictException.isOverlapViolation(ex)) {
             log.info("Booking overlap detected by database constraint");
             return createProblemDetail(
                     HttpStatus.CONFLICT, "The requested time slot is not available",
@@ -132,6 +179,24 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 "DATA_INTEGRITY_ERROR", instance);
     }
 
+    // ========================
+    // Concurrency
+    // ========================
+
+    /**
+     * Оптимистическая блокировка проиграла гонку во всех попытках OptimisticRetry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLocking(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+
+        log.info("Concurrent modification, retries exhausted: {}", ex.getMessage());
+
+        return createProblemDetail(
+                HttpStatus.CONFLICT, "The resource was modified concurrently, please retry",
+                "CONCURRENT_MODIFICATION", request);
+    }
+
     // ========================
 // Validation
 // ========================
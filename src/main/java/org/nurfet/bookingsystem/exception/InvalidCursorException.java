@@ -0,0 +1,9 @@
+package org.nurfet.bookingsystem.exception;
+
+public class InvalidCursorException extends BusinessException {
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("НЕКОРРЕКТНЫЙ КУРСОР",
+                "Некорректный курсор пагинации: %s".formatted(cursor), cause);
+    }
+}
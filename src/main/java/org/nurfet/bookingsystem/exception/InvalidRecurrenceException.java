@@ -0,0 +1,8 @@
+package org.nurfet.bookingsystem.exception;
+
+public class InvalidRecurrenceException extends BusinessException {
+
+    public InvalidRecurrenceException(String message) {
+        super("НЕКОРРЕКТНОЕ ПРАВИЛО ПОВТОРЕНИЯ", message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.nurfet.bookingsystem.exception;
+
+public class InvalidRequestException extends BusinessException {
+
+    public InvalidRequestException(String message) {
+        super("НЕКОРРЕКТНЫЙ ЗАПРОС", message);
+    }
+}
@@ -0,0 +1,33 @@
+package org.nurfet.bookingsystem.exception;
+
+import lombok.Getter;
+
+/**
+ * Версия из If-Match не совпала с текущей: объект успели изменить.
+ */
+@Getter
+public class StaleVersionException extends BusinessException {
+
+    private final Long currentVersion;
+
+    public StaleVersionException(String entityName, Long id, Long expectedVersion, Long currentVersion) {
+        super("ВЕРСИЯ УСТАРЕЛА",
+                "%s с id %d изменён: ожидалась версия %d, текущая %d"
+                        .formatted(entityName, id, expectedVersion, currentVersion));
+        this.currentVersion = currentVersion;
+    }
+
+    public StaleVersionException(String entityTag) {
+        super("ВЕРСИЯ УСТАРЕЛА", "If-Match " + entityTag + " не соответствует ни одной версии");
+        this.currentVersion = null;
+    }
+
+    /**
+     * Пустая ожидаемая версия (If-Match не передан или "*") подходит к любой текущей.
+     */
+    public static void requireVersion(String entityName, Long id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new StaleVersionException(entityName, id, expectedVersion, currentVersion);
+        }
+    }
+}
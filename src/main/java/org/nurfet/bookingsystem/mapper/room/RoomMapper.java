@@ -16,6 +16,7 @@ public interface RoomMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "active", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Room toEntity(CreateRoomRequest request);
 
     RoomResponse toResponse(Room room);
@@ -0,0 +1,115 @@
+package org.nurfet.bookingsystem.repository;
+
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.entity.ArchivedBooking;
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Чтение архива завершённых бронирований. Списки отдаются в том же
+ * keyset-порядке (start_time, id), что и из bookings, чтобы их можно было слить.
+ */
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    @Query("""
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        a.id, a.roomId, a.roomName, a.title, a.organizerEmail, a.startTime, a.endTime,
+        a.status, a.createdAt, a.updatedAt)
+    from ArchivedBooking a
+    where a.id = :id
+""")
+    Optional<BookingResponse> findResponseById(@Param("id")Long id);
+
+    @Query("""
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        a.id, a.roomId, a.roomName, a.title, a.organizerEmail, a.startTime, a.endTime,
+        a.status, a.createdAt, a.updatedAt)
+    from ArchivedBooking a
+    where a.organizerEmail = :email
+    and (cast(:afterStart as Instant) is null
+         or a.startTime > :afterStart
+         or (a.startTime = :afterStart and a.id > :afterId))
+    order by a.startTime, a.id
+""")
+    List<BookingResponse> findResponsesByOrganizer(@Param("email")String email,
+                                                   @Param("afterStart")Instant afterStart,
+                                                   @Param("afterId")Long afterId,
+                                                   Limit limit);
+
+    @Query("""
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        a.id, a.roomId, a.roomName, a.title, a.organizerEmail, a.startTime, a.endTime,
+        a.status, a.createdAt, a.updatedAt)
+    from ArchivedBooking a
+    where a.status = :status
+    and (cast(:afterStart as Instant) is null
+         or a.startTime > :afterStart
+         or (a.startTime = :afterStart and a.id > :afterId))
+    order by a.startTime, a.id
+""")
+    List<BookingResponse> findResponsesByStatus(@Param("status")BookingStatus status,
+                                                @Param("afterStart")Instant afterStart,
+                                                @Param("afterId")Long afterId,
+                                                Limit limit);
+
+    /**
+     * Архивные бронирования комнаты, пересекающиеся с [from, to); нижняя граница
+     * по start_time та же, что в BookingSpecification.overlaps.
+     */
+    @Query("""
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        a.id, a.roomId, a.roomName, a.title, a.organizerEmail, a.startTime, a.endTime,
+        a.status, a.createdAt, a.updatedAt)
+    from ArchivedBooking a
+    where a.roomId = :roomId
+    and a.startTime < :to
+    and a.endTime > :from
+    and a.startTime > :lowerStart
+    and (cast(:afterStart as Instant) is null
+         or a.startTime > :afterStart
+         or (a.startTime = :afterStart and a.id > :afterId))
+    order by a.startTime, a.id
+""")
+    List<BookingResponse> findResponsesByRoomAndRange(@Param("roomId")Long roomId,
+                                                      @Param("from")Instant from,
+                                                      @Param("to")Instant to,
+                                                      @Param("lowerStart")Instant lowerStart,
+                                                      @Param("afterStart")Instant afterStart,
+                                                      @Param("afterId")Long afterId,
+                                                      Limit limit);
+
+    @Query("select a.status from ArchivedBooking a where a.id = :id")
+    Optional<BookingStatus> findStatusById(@Param("id")Long id);
+
+    default List<BookingResponse> findResponsesByRoomAndRange(Long roomId, Instant from, Instant to,
+                                                              BookingKeyset after, int limit) {
+        Instant lowerStart = from.minus(Booking.MAX_DURATION);
+
+        return after == null
+                ? findResponsesByRoomAndRange(roomId, from, to, lowerStart, null, null, Limit.of(limit))
+                : findResponsesByRoomAndRange(roomId, from, to, lowerStart, after.startTime(), after.id(),
+                        Limit.of(limit));
+    }
+
+    default List<BookingResponse> findResponsesByOrganizer(String email, BookingKeyset after, int limit) {
+        return after == null
+                ? findResponsesByOrganizer(email, null, null, Limit.of(limit))
+                : findResponsesByOrganizer(email, after.startTime(), after.id(), Limit.of(limit));
+    }
+
+    default List<BookingResponse> findResponsesByStatus(BookingStatus status, BookingKeyset after, int limit) {
+        return after == null
+                ? findResponsesByStatus(status, null, null, Limit.of(limit))
+                : findResponsesByStatus(status, after.startTime(), after.id(), Limit.of(limit));
+    }
+}
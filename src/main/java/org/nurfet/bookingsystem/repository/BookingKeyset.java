@@ -0,0 +1,9 @@
+package org.nurfet.bookingsystem.repository;
+
+import java.time.Instant;
+
+/**
+ * Позиция keyset-пагинации: строки строго после (startTime, id).
+ */
+public record BookingKeyset(Instant startTime, Long id) {
+}
@@ -1,21 +1,42 @@
 package org.nurfet.bookingsystem.repository;
 
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.nurfet.bookingsystem.dto.projection.BookingConflictRow;
+import org.nurfet.bookingsystem.dto.projection.BookingTransitionRow;
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
 import org.nurfet.bookingsystem.entity.Booking;
 import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Таблица bookings партиционирована по месяцам start_time (V6). Условия
+ * только по end_time партиции не отсекают, поэтому запросы дополнены
+ * избыточными границами по start_time: бронирование длится не более
+ * {@link Booking#MAX_DURATION}, поэтому end_time &gt; t влечёт
+ * start_time &gt; t - MAX_DURATION, а end_time &lt; t — start_time &lt; t.
+ * <p>
+ * Поиск одного бронирования по id (findById, UPDATE сущности, переходы
+ * confirmPending/cancelActive) start_time не знает и партиции не отсекает:
+ * он проходит по индексу PK каждой партиции, по одному обращению к индексу
+ * на партицию. Это сознательный компромисс, чтобы API оставался адресуемым
+ * по одному id; число партиций ограничено обслуживанием (months-ahead, retention-months).
+ */
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>,
+                                           BookingResponseRepository {
 
     @Query("""
     select exists (
@@ -26,6 +47,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                         org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
         and b.startTime < :endTime
         and b.endTime > :startTime
+        and b.startTime > :#{#startTime.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
         and (:excludeId is null or b.id <> :excludeId)
     )
 """)
@@ -40,63 +62,305 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         return existsOverlappingBooking(roomId, startTime, endTime, null);
     }
 
+    /**
+     * Доступность комнаты одним запросом: пересекающиеся активные бронирования
+     * (не более limit) вместе с названием комнаты и общим числом конфликтов.
+     * Комната без конфликтов даёт одну строку с пустыми полями бронирования,
+     * несуществующая комната — ни одной строки.
+     */
     @Query("""
-    select b
+    select new org.nurfet.bookingsystem.dto.projection.BookingConflictRow(
+        r.id, r.name, b.id, b.title, b.organizerEmail, b.startTime, b.endTime,
+        b.status, b.createdAt, b.updatedAt, count(b.id) over())
+    from Room r
+    left join Booking b on b.room = r
+        and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
+                        org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
+        and b.startTime < :endTime
+        and b.endTime > :startTime
+        and b.startTime > :#{#startTime.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
+    where r.id = :roomId
+    order by b.startTime
+""")
+    List<BookingConflictRow> findAvailability(@Param("roomId")Long roomId,
+                                              @Param("startTime")Instant startTime,
+                                              @Param("endTime")Instant endTime,
+                                              Limit limit);
+
+    @Query("""
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        b.id, r.id, r.name, b.title, b.organizerEmail, b.startTime, b.endTime,
+        b.status, b.createdAt, b.updatedAt)
     from Booking b
-    where b.room.id = :roomId
+    join b.room r
+    where r.id in :roomIds
     and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
                     org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
     and b.startTime < :endTime
     and b.endTime > :startTime
-    order by b.startTime
+    and b.startTime > :#{#startTime.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
+    order by r.id, b.startTime
 """)
-    List<Booking> findOverlappingBooking(@Param("roomId")Long roomId,
-                                         @Param("startTime")Instant startTime,
-                                         @Param("endTime")Instant endTime);
-
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select b from Booking b where b.id = :id")
-    Optional<Booking> findByIdWithLock(@Param("id")Long id);
+    List<BookingResponse> findOverlappingResponsesInRooms(@Param("roomIds")Collection<Long> roomIds,
+                                                          @Param("startTime")Instant startTime,
+                                                          @Param("endTime")Instant endTime);
 
     @Query("""
-    select b
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        b.id, r.id, r.name, b.title, b.organizerEmail, b.startTime, b.endTime,
+        b.status, b.createdAt, b.updatedAt)
     from Booking b
-    where b.room.id = :roomId
+    join b.room r
+    where b.id in :ids
+    and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
+                    org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
     and b.startTime < :endTime
     and b.endTime > :startTime
+    and b.startTime > :#{#startTime.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
     order by b.startTime
 """)
-    List<Booking> findByRoomAndTimeRange(@Param("roomId")Long roomId,
-                                         @Param("startTime")Instant startTime,
-                                         @Param("endTime")Instant endTime);
+    List<BookingResponse> findOverlappingResponsesByIds(@Param("ids")Collection<Long> ids,
+                                                        @Param("startTime")Instant startTime,
+                                                        @Param("endTime")Instant endTime);
 
     @Query("""
-    select b
+    select new org.nurfet.bookingsystem.dto.response.BookingResponse(
+        b.id, r.id, r.name, b.title, b.organizerEmail, b.startTime, b.endTime,
+        b.status, b.createdAt, b.updatedAt)
     from Booking b
-    where b.room.id = :roomId
+    join b.room r
+    where r.id = :roomId
     and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
                     org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
     and b.endTime > :now
+    and b.startTime > :#{#now.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
     order by b.startTime
 """)
-    List<Booking> findActiveBookingsByRoom(@Param("roomId")Long roomId,
-                                           @Param("now")Instant now);
+    List<BookingResponse> findActiveResponsesByRoom(@Param("roomId")Long roomId,
+                                                    @Param("now")Instant now);
 
-    List<Booking> findByOrganizerEmail(String email);
+    @Query("""
+    select new org.nurfet.bookingsystem.event.BookingSlot(b.id, b.room.id, b.startTime, b.endTime, b.status)
+    from Booking b
+    where b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
+                      org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
+    and b.endTime > :now
+    and b.startTime > :#{#now.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
+""")
+    List<BookingSlot> findActiveSlots(@Param("now")Instant now);
 
-    List<Booking> findByStatus(BookingStatus status);
+    @Query("""
+    select new org.nurfet.bookingsystem.event.BookingSlot(b.id, b.room.id, b.startTime, b.endTime, b.status)
+    from Booking b
+    where b.room.id in :roomIds
+    and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
+                    org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
+    and b.startTime < :endTime
+    and b.endTime > :startTime
+    and b.startTime > :#{#startTime.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
+    order by b.room.id, b.startTime
+""")
+    List<BookingSlot> findActiveSlotsInRooms(@Param("roomIds")Collection<Long> roomIds,
+                                             @Param("startTime")Instant startTime,
+                                             @Param("endTime")Instant endTime);
 
     @Modifying(clearAutomatically = false, flushAutomatically = true)
     @Query("""
     update Booking b
     set b.status = org.nurfet.bookingsystem.entity.BookingStatus.EXPIRED,
-        b.updatedAt = :now
+        b.updatedAt = :now,
+        b.version = b.version + 1
     where b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
                       org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
     and b.endTime < :now
+    and b.startTime < :now
 """)
     int markExpiredBookings(@Param("now")Instant now);
 
+    /**
+     * Помечает EXPIRED не более batchSize истекших бронирований, начиная с самых старых.
+     * Строки, заблокированные другими транзакциями, пропускаются (SKIP LOCKED).
+     * Без явного пространства запроса (bookings) Hibernate сбрасывал бы после
+     * нативного UPDATE весь второй уровень кэша, включая комнаты.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bookings"))
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+    with batch as (
+        select id
+        from bookings
+        where status in('PENDING', 'CONFIRMED')
+        and end_time < :now
+        and start_time < :now
+        order by end_time
+        limit :batchSize
+        for update skip locked
+    )
+    update bookings b
+    set status = 'EXPIRED',
+        updated_at = :now,
+        version = b.version + 1
+    from batch
+    where b.id = batch.id
+""", nativeQuery = true)
+    int markExpiredBatch(@Param("now")Instant now,
+                         @Param("batchSize")int batchSize);
+
+    /**
+     * PENDING → CONFIRMED одним оператором, если бронирование ещё не закончилось
+     * (end_time >= now, как в Booking.confirm). Пустой результат — перехода не было:
+     * бронирования нет или статус/время не позволяют подтверждение.
+     * <p>
+     * Строка блокируется только на время оператора; одновременные переходы
+     * сериализуются условием на статус, и проигравший получает пустой результат.
+     * Поиск по id без start_time проходит по индексу PK каждой партиции.
+     */
+    @Query(value = """
+    with previous as (
+        select id, start_time, status
+        from bookings
+        where id = :id
+        for update
+    ),
+    updated as (
+        update bookings b
+        set status = 'CONFIRMED', updated_at = :now, version = b.version + 1
+        from previous p
+        where b.id = p.id
+        and b.start_time = p.start_time
+        and b.status = 'PENDING'
+        and b.end_time >= :now
+        returning b.id, b.room_id, b.title, b.organizer_email, b.start_time, b.end_time,
+                  b.status, p.status as previous_status, b.created_at, b.updated_at, b.version
+    )
+    select u.id, u.room_id as roomId, r.name as roomName, u.title,
+           u.organizer_email as organizerEmail, u.start_time as startTime, u.end_time as endTime,
+           u.status, u.previous_status as previousStatus,
+           u.created_at as createdAt, u.updated_at as updatedAt, u.version
+    from updated u
+    join rooms r on r.id = u.room_id
+""", nativeQuery = true)
+    Optional<BookingTransitionRow> confirmPending(@Param("id")Long id,
+                                                  @Param("now")Instant now);
+
+    /**
+     * PENDING/CONFIRMED → CANCELLED одним оператором, см. {@link #confirmPending}.
+     */
+    @Query(value = """
+    with previous as (
+        select id, start_time, status
+        from bookings
+        where id = :id
+        for update
+    ),
+    updated as (
+        update bookings b
+        set status = 'CANCELLED', updated_at = :now, version = b.version + 1
+        from previous p
+        where b.id = p.id
+        and b.start_time = p.start_time
+        and b.status in('PENDING', 'CONFIRMED')
+        returning b.id, b.room_id, b.title, b.organizer_email, b.start_time, b.end_time,
+                  b.status, p.status as previous_status, b.created_at, b.updated_at, b.version
+    )
+    select u.id, u.room_id as roomId, r.name as roomName, u.title,
+           u.organizer_email as organizerEmail, u.start_time as startTime, u.end_time as endTime,
+           u.status, u.previous_status as previousStatus,
+           u.created_at as createdAt, u.updated_at as updatedAt, u.version
+    from updated u
+    join rooms r on r.id = u.room_id
+""", nativeQuery = true)
+    Optional<BookingTransitionRow> cancelActive(@Param("id")Long id,
+                                                @Param("now")Instant now);
+
+    /**
+     * Позиции (с 1) интервалов пакета, пересекающихся с активными бронированиями.
+     * Весь пакет проверяется одним запросом: массивы разворачиваются unnest в строки.
+     * Нижняя граница start_time - MAX_DURATION держит поиск в индексе, как в
+     * {@link #existsOverlappingBooking}.
+     */
+    @Query(value = """
+    select cast(t.position as integer)
+    from unnest(cast(:roomIds as bigint[]),
+                cast(:startTimes as timestamptz[]),
+                cast(:endTimes as timestamptz[]))
+         with ordinality as t(room_id, start_time, end_time, position)
+    where exists (
+        select 1
+        from bookings b
+        where b.room_id = t.room_id
+        and b.status in('PENDING', 'CONFIRMED')
+        and b.start_time < t.end_time
+        and b.end_time > t.start_time
+        and b.start_time > t.start_time - cast(:#{T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION.toString()} as interval)
+    )
+    order by t.position
+""", nativeQuery = true)
+    List<Integer> findConflictingPositions(@Param("roomIds")Long[] roomIds,
+                                           @Param("startTimes")Instant[] startTimes,
+                                           @Param("endTimes")Instant[] endTimes);
+
+    /**
+     * Вхождения серии, оставшиеся в bookings (архивные сюда не попадают).
+     */
+    @Query("select b from Booking b join fetch b.room where b.series.id = :seriesId order by b.startTime")
+    List<Booking> findAllBySeriesId(@Param("seriesId")Long seriesId);
+
+    /**
+     * Переносит в bookings_archive не более batchSize завершённых бронирований
+     * (EXPIRED, CANCELLED), закончившихся раньше before, начиная с самых старых.
+     * Удаление и вставка идут одним оператором, строки под чужими блокировками
+     * пропускаются.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bookings"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bookings_archive")
+    })
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+    with batch as (
+        select id, start_time
+        from bookings
+        where status in('CANCELLED', 'EXPIRED')
+        and start_time < :before
+        and end_time < :before
+        order by start_time
+        limit :batchSize
+        for update skip locked
+    ),
+    moved as (
+        delete from bookings b
+        using batch
+        where b.id = batch.id
+        and b.start_time = batch.start_time
+        returning b.id, b.room_id, b.title, b.organizer_email, b.start_time, b.end_time,
+                  b.status, b.created_at, b.updated_at
+    )
+    insert into bookings_archive(id, room_id, room_name, title, organizer_email, start_time, end_time,
+                                 status, created_at, updated_at, archived_at)
+    select moved.id, moved.room_id, r.name, moved.title, moved.organizer_email, moved.start_time,
+           moved.end_time, moved.status, moved.created_at, moved.updated_at, now()
+    from moved
+    left join rooms r on r.id = moved.room_id
+""", nativeQuery = true)
+    int archiveBatch(@Param("before")Instant before,
+                     @Param("batchSize")int batchSize);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+    update Booking b
+    set b.status = org.nurfet.bookingsystem.entity.BookingStatus.EXPIRED,
+        b.updatedAt = :now,
+        b.version = b.version + 1
+    where b.id in :ids
+    and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
+                    org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
+    and b.endTime < :now
+    and b.startTime < :now
+""")
+    int markExpiredByIds(@Param("ids")Collection<Long> ids,
+                         @Param("now")Instant now);
+
     @Query("""
     select count(b)
     from Booking b
@@ -104,6 +368,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     and b.status in(org.nurfet.bookingsystem.entity.BookingStatus.PENDING,
                     org.nurfet.bookingsystem.entity.BookingStatus.CONFIRMED)
     and b.endTime > :now
+    and b.startTime > :#{#now.minus(T(org.nurfet.bookingsystem.entity.Booking).MAX_DURATION)}
 """)
     long countActiveBookingsByRoom(@Param("roomId")Long roomId,
                                    @Param("now")Instant now);
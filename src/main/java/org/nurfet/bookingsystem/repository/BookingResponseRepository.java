@@ -0,0 +1,21 @@
+package org.nurfet.bookingsystem.repository;
+
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.entity.Booking;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Чтение бронирований сразу в BookingResponse (join с rooms, без сущностей).
+ */
+public interface BookingResponseRepository {
+
+    /**
+     * Бронирования по спецификации в порядке (startTime, id), строго после after.
+     *
+     * @param after позиция последнего элемента предыдущей страницы или null для первой
+     * @param limit максимальное число строк
+     */
+    List<BookingResponse> findResponses(Specification<Booking> spec, BookingKeyset after, int limit);
+}
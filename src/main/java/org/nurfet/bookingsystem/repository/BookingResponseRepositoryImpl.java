@@ -0,0 +1,65 @@
+package org.nurfet.bookingsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.entity.Room;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookingResponseRepositoryImpl implements BookingResponseRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingResponse> findResponses(Specification<Booking> spec, BookingKeyset after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponse> query = cb.createQuery(BookingResponse.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Room> room = booking.join("room");
+
+        query.select(cb.construct(BookingResponse.class,
+                booking.get("id"),
+                room.get("id"),
+                room.get("name"),
+                booking.get("title"),
+                booking.get("organizerEmail"),
+                booking.get("startTime"),
+                booking.get("endTime"),
+                booking.get("status"),
+                booking.get("createdAt"),
+                booking.get("updatedAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(spec.toPredicate(booking, query, cb));
+
+        Path<Instant> startTime = booking.get("startTime");
+        Path<Long> id = booking.get("id");
+
+        if (after != null) {
+            // Простая нижняя граница по start_time позволяет отсечь ранние партиции
+            predicates.add(cb.greaterThanOrEqualTo(startTime, after.startTime()));
+            predicates.add(cb.or(
+                    cb.greaterThan(startTime, after.startTime()),
+                    cb.and(cb.equal(startTime, after.startTime()), cb.greaterThan(id, after.id()))));
+        }
+
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(startTime), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
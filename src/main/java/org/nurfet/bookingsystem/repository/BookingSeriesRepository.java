@@ -0,0 +1,9 @@
+package org.nurfet.bookingsystem.repository;
+
+import org.nurfet.bookingsystem.entity.BookingSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+}
@@ -9,13 +9,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long>,
-                                        JpaSpecificationExecutor<Room> {
+                                        JpaSpecificationExecutor<Room>,
+                                        RoomSearchRepository {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select r from Room r where r.id = :id")
     Optional<Room> findByIdWithLock(@Param("id")Long id);
+
+    /**
+     * Блокировка набора комнат одним запросом. Строки блокируются в порядке id,
+     * поэтому пакеты с пересекающимися комнатами не ждут друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Room r where r.id in :ids order by r.id")
+    List<Room> findAllByIdWithLock(@Param("ids")Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package org.nurfet.bookingsystem.repository;
+
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.dto.spec.RoomSearchMode;
+import org.nurfet.bookingsystem.entity.Room;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Поиск комнат по сходству текста на триграммных индексах pg_trgm
+ * и оценка размера выборки без count(*).
+ */
+public interface RoomSearchRepository {
+
+    /**
+     * Комнаты, у которых название (описание) содержит строку фильтра или похоже
+     * на неё по word_similarity, по убыванию суммарного сходства, затем по name и id.
+     * Условия capacity и active — как в RoomSpecification; сортировка из pageable
+     * не применяется.
+     */
+    Page<Room> searchBySimilarity(RoomFilter filter, Pageable pageable);
+
+    /**
+     * То же, что {@link #searchBySimilarity}, но без count(*): читается size + 1 строк,
+     * лишняя строка определяет hasNext.
+     */
+    Slice<Room> sliceBySimilarity(RoomFilter filter, Pageable pageable);
+
+    /**
+     * Оценка числа комнат под фильтром по плану запроса (EXPLAIN, Plan Rows).
+     * Точна настолько, насколько свежа статистика ANALYZE по rooms.
+     */
+    long estimateCount(RoomFilter filter, RoomSearchMode mode);
+}
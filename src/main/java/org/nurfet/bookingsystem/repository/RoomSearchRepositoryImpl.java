@@ -0,0 +1,139 @@
+package org.nurfet.bookingsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.dto.spec.RoomSearchMode;
+import org.nurfet.bookingsystem.entity.Room;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+class RoomSearchRepositoryImpl implements RoomSearchRepository {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Room> searchBySimilarity(RoomFilter filter, Pageable pageable) {
+        Conditions conditions = Conditions.of(filter, RoomSearchMode.SIMILARITY);
+        List<Room> rooms = findRanked(conditions, pageable, pageable.isPaged() ? pageable.getPageSize() : -1);
+
+        return PageableExecutionUtils.getPage(rooms, pageable, () -> {
+            Query count = conditions.bind(entityManager.createNativeQuery(
+                    "select count(*) from rooms r" + conditions.where(), Long.class));
+            return (Long) count.getSingleResult();
+        });
+    }
+
+    @Override
+    public Slice<Room> sliceBySimilarity(RoomFilter filter, Pageable pageable) {
+        Conditions conditions = Conditions.of(filter, RoomSearchMode.SIMILARITY);
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findRanked(conditions, pageable, -1), pageable, false);
+        }
+
+        List<Room> rooms = findRanked(conditions, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = rooms.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? rooms.subList(0, pageable.getPageSize()) : rooms, pageable, hasNext);
+    }
+
+    @Override
+    public long estimateCount(RoomFilter filter, RoomSearchMode mode) {
+        Conditions conditions = Conditions.of(filter, mode);
+        Query explain = conditions.bind(entityManager.createNativeQuery(
+                "explain (format json) select 1 from rooms r" + conditions.where()));
+
+        Matcher rows = PLAN_ROWS.matcher(String.valueOf(explain.getSingleResult()));
+        return rows.find() ? Long.parseLong(rows.group(1)) : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Room> findRanked(Conditions conditions, Pageable pageable, int limit) {
+        Query query = conditions.bind(entityManager.createNativeQuery(
+                "select r.* from rooms r" + conditions.where()
+                        + " order by " + conditions.score() + " desc, r.name, r.id",
+                Room.class));
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+        }
+
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+
+        return query.getResultList();
+    }
+
+    /**
+     * Условия собираются только из заданных полей: без "(:x is null or ...)"
+     * планировщик всегда видит индексируемые выражения.
+     */
+    private record Conditions(List<String> predicates, List<String> scores, Map<String, Object> parameters) {
+
+        static Conditions of(RoomFilter filter, RoomSearchMode mode) {
+            Conditions conditions = new Conditions(new ArrayList<>(), new ArrayList<>(), new HashMap<>());
+
+            if (filter.name() != null && !filter.name().isBlank()) {
+                conditions.text("name", filter.name(), mode);
+            }
+
+            if (filter.description() != null && !filter.description().isBlank()) {
+                conditions.text("description", filter.description(), mode);
+            }
+
+            if (filter.capacity() != null) {
+                conditions.predicates.add("r.capacity >= :capacity");
+                conditions.parameters.put("capacity", filter.capacity());
+            }
+
+            if (filter.active() != null) {
+                conditions.predicates.add("r.is_active = :active");
+                conditions.parameters.put("active", filter.active());
+            }
+
+            return conditions;
+        }
+
+        private void text(String column, String value, RoomSearchMode mode) {
+            String substring = "lower(r." + column + ") like '%' || lower(:" + column + ") || '%'";
+
+            if (mode == RoomSearchMode.SIMILARITY) {
+                predicates.add("(" + substring + " or lower(:" + column + ") <% lower(r." + column + "))");
+                scores.add("coalesce(word_similarity(lower(:" + column + "), lower(r." + column + ")), 0)");
+            } else {
+                predicates.add(substring);
+            }
+
+            parameters.put(column, value);
+        }
+
+        String where() {
+            return predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+        }
+
+        String score() {
+            return scores.isEmpty() ? "0" : String.join(" + ", scores);
+        }
+
+        Query bind(Query query) {
+            parameters.forEach(query::setParameter);
+            return query;
+        }
+    }
+}
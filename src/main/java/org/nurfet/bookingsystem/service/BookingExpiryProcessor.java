@@ -0,0 +1,135 @@
+package org.nurfet.bookingsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Пакетная пометка истекших бронирований.
+ * <p>
+ * Вместо одного UPDATE по всем истекшим строкам обрабатывает пакеты
+ * по booking.expiry.batch-size строк в отдельных транзакциях: каждая держит
+ * блокировки недолго, а параллельные экземпляры приложения не ждут друг друга
+ * благодаря SKIP LOCKED. Пакеты выбираются по частичному индексу
+ * idx_bookings_active_end.
+ */
+@Service
+@Slf4j
+public class BookingExpiryProcessor {
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingProperties.Expiry settings;
+
+    private final Counter expiredCounter;
+    private final Counter batchCounter;
+    private final Timer runTimer;
+    private final DistributionSummary runRows;
+    private final DistributionSummary runThroughput;
+
+    public BookingExpiryProcessor(BookingRepository bookingRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  BookingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = properties.expiry();
+
+        this.expiredCounter = Counter.builder("booking.expiry.expired")
+                .description("Бронирования, помеченные EXPIRED")
+                .register(meterRegistry);
+        this.batchCounter = Counter.builder("booking.expiry.batches")
+                .description("Обработанные пакеты")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("booking.expiry.run")
+                .description("Длительность запуска")
+                .register(meterRegistry);
+        this.runRows = DistributionSummary.builder("booking.expiry.run.rows")
+                .description("Строк за запуск")
+                .register(meterRegistry);
+        this.runThroughput = DistributionSummary.builder("booking.expiry.run.throughput")
+                .description("Строк в секунду за запуск")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Помечает истекшие бронирования пакетами, пока они не закончатся
+     * или не будет достигнут booking.expiry.max-batches.
+     *
+     * @return общее число помеченных бронирований
+     */
+    public int expireBookings() {
+        Instant now = Instant.now();
+        long startedAt = System.nanoTime();
+
+        int total = 0;
+        int batches = 0;
+
+        while (batches < settings.maxBatches()) {
+            int count = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                int expired = bookingRepository.markExpiredBatch(now, settings.batchSize());
+
+                if (expired > 0) {
+                    eventPublisher.publishEvent(new BookingsExpiredEvent(now));
+                }
+
+                return expired;
+            }));
+
+            if (count == 0) {
+                break;
+            }
+
+            total += count;
+            batches++;
+            batchCounter.increment();
+
+            if (count < settings.batchSize()) {
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        record(total, elapsed);
+
+        if (total > 0) {
+            log.info("Expired {} bookings in {} batches, {} ms", total, batches, elapsed.toMillis());
+        }
+
+        if (batches == settings.maxBatches()) {
+            log.warn("Expiry run stopped after {} batches, remaining bookings will be processed in the next run",
+                    batches);
+        }
+
+        return total;
+    }
+
+    private void record(int total, Duration elapsed) {
+        runTimer.record(elapsed);
+        runRows.record(total);
+        expiredCounter.increment(total);
+
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+
+        if (total > 0 && seconds > 0) {
+            runThroughput.record(total / seconds);
+        }
+    }
+}
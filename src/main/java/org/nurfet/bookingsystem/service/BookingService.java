@@ -2,53 +2,155 @@ package org.nurfet.bookingsystem.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.config.BookingProperties.CreationMode;
+import org.nurfet.bookingsystem.dto.projection.BookingConflictRow;
+import org.nurfet.bookingsystem.dto.projection.BookingTransitionRow;
 import org.nurfet.bookingsystem.dto.request.CreateBookingRequest;
+import org.nurfet.bookingsystem.dto.request.CreateBookingSeriesRequest;
 import org.nurfet.bookingsystem.dto.request.UpdateBookingRequest;
 import org.nurfet.bookingsystem.dto.response.AvailabilityResponse;
+import org.nurfet.bookingsystem.dto.response.BookingBatchItemResponse;
+import org.nurfet.bookingsystem.dto.response.BookingBatchItemStatus;
+import org.nurfet.bookingsystem.dto.response.BookingBatchResponse;
 import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.BookingSeriesResponse;
+import org.nurfet.bookingsystem.dto.response.CursorPage;
+import org.nurfet.bookingsystem.dto.response.RoomAvailabilityResponse;
+import org.nurfet.bookingsystem.dto.response.RoomFreeSlotsResponse;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
 import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.entity.BookingSeries;
 import org.nurfet.bookingsystem.entity.BookingStatus;
 import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
 import org.nurfet.bookingsystem.exception.BookingConflictException;
 import org.nurfet.bookingsystem.exception.EntityNotFoundException;
 import org.nurfet.bookingsystem.exception.InvalidBookingStateException;
+import org.nurfet.bookingsystem.exception.InvalidRequestException;
 import org.nurfet.bookingsystem.exception.RoomNotAvailableException;
+import org.nurfet.bookingsystem.exception.StaleVersionException;
 import org.nurfet.bookingsystem.mapper.booking.BookingMapper;
+import org.nurfet.bookingsystem.repository.ArchivedBookingRepository;
+import org.nurfet.bookingsystem.repository.BookingKeyset;
 import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.BookingSeriesRepository;
 import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.availability.ActiveBookingCounters;
+import org.nurfet.bookingsystem.service.availability.BookingIntervalIndex;
+import org.nurfet.bookingsystem.service.availability.FreeSlotFinder;
+import org.nurfet.bookingsystem.service.availability.OccupancyBitmap;
+import org.nurfet.bookingsystem.service.lock.OptimisticRetry;
+import org.nurfet.bookingsystem.service.pagination.BookingCursor;
+import org.nurfet.bookingsystem.service.room.KnownRoomIds;
+import org.nurfet.bookingsystem.service.series.RecurrenceExpander;
+import org.nurfet.bookingsystem.specification.BookingSpecification;
+import org.nurfet.bookingsystem.specification.RoomSpecification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingService {
 
+    public static final int MAX_AVAILABILITY_ROOMS = 500;
+    public static final Duration MAX_FREE_SLOT_HORIZON = Duration.ofDays(31);
+    public static final Duration FREE_SLOT_STEP = Booking.MIN_DURATION;
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final RoomRepository roomRepository;
+    private final BookingSeriesRepository seriesRepository;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalIndex intervalIndex;
+    private final OccupancyBitmap occupancyBitmap;
+    private final ActiveBookingCounters activeBookingCounters;
+    private final KnownRoomIds knownRoomIds;
+    private final OptimisticRetry optimisticRetry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingProperties properties;
+
+    /**
+     * Известные комнаты проверяются в памяти, без запроса в БД.
+     */
+    private void requireRoom(Long roomId) {
+        if (!knownRoomIds.exists(roomId)) {
+            throw new EntityNotFoundException("Room", roomId);
+        }
+    }
 
+    /**
+     * Бронирование из рабочей таблицы. Архивное бронирование изменить нельзя:
+     * оно уже завершено, поэтому вместо 404 — отказ по статусу (409).
+     */
     private Booking findBookingById(Long id) {
         return bookingRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Booking", id));
+                .orElseThrow(() -> archivedBookingRepository.findStatusById(id)
+                        .<RuntimeException>map(status -> new InvalidBookingStateException(
+                                "Booking is archived with status " + status))
+                        .orElseGet(() -> new EntityNotFoundException("Booking", id)));
+    }
+
+    /**
+     * Прогретый индекс отвечает сам, только если пересечений нет: пропущенное им
+     * пересечение отсечёт excl_booking_overlap. Найденное индексом пересечение лишь
+     * подсказка — индекс мог отстать от БД (пересборка, записи других узлов),
+     * поэтому отказ подтверждается запросом.
+     */
+    private boolean hasOverlappingBooking(Long roomId, Instant startTime, Instant endTime, Long excludeId) {
+        if (intervalIndex.isReady() && !intervalIndex.hasOverlap(roomId, startTime, endTime, excludeId)) {
+            return false;
+        }
+
+        return bookingRepository.existsOverlappingBooking(roomId, startTime, endTime, excludeId);
     }
 
     @Transactional
     public BookingResponse createBooking(CreateBookingRequest request) {
         log.info("Creating booking: {}", request.title());
 
-        Room room = roomRepository.findByIdWithLock(request.roomId())
+        boolean optimistic = properties.creation().mode() == CreationMode.OPTIMISTIC;
+
+        // В OPTIMISTIC-режиме комната не блокируется: параллельные вставки
+        // в одну комнату разводит ограничение excl_booking_overlap
+        Room room = (optimistic
+                ? roomRepository.findById(request.roomId())
+                : roomRepository.findByIdWithLock(request.roomId()))
                 .orElseThrow(() -> new EntityNotFoundException("Room", request.roomId()));
 
         if (!room.isActive()) {
             throw new RoomNotAvailableException(request.roomId(), "Room is not active");
         }
 
-        boolean hasConflicts = bookingRepository.existsOverlappingBooking(request.roomId(),
-                request.startTime(), request.endTime());
+        // Без прогретого индекса OPTIMISTIC-режим не ходит в БД заранее
+        boolean hasConflicts = (intervalIndex.isReady() || !optimistic)
+                && hasOverlappingBooking(request.roomId(), request.startTime(), request.endTime(), null);
 
         if (hasConflicts) {
             log.info("Booking conflict detected with room: {}", request.roomId());
@@ -61,23 +163,273 @@ public class BookingService {
                 request.startTime(),
                 request.endTime());
 
-        Booking saved = bookingRepository.save(booking);
+        Booking saved;
+
+        // id из последовательности известен до INSERT, и Hibernate откладывает вставку
+        // до flush; flush здесь, чтобы нарушение excl_booking_overlap пришло сюда
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingConflictException.isOverlapViolation(e)) {
+                log.info("Booking conflict detected by database constraint, room: {}", request.roomId());
+                throw new BookingConflictException(request.roomId(), request.startTime(), request.endTime());
+            }
+            throw e;
+        }
+
+        eventPublisher.publishEvent(BookingChangedEvent.created(BookingSlot.of(saved)));
         log.info("Booking with id: {} created", saved.getId());
 
         return bookingMapper.toResponse(saved);
     }
 
-    @Transactional
+    /**
+     * Пакетное создание с частичным успехом: у каждого элемента свой результат.
+     * <p>
+     * Комнаты пакета блокируются одним запросом в порядке id (в любом режиме
+     * создания), пересечения с существующими бронированиями проверяются одним
+     * запросом к БД на весь пакет, пересечения внутри пакета — в памяти: выигрывает
+     * элемент, стоящий раньше. Принятые элементы вставляются JDBC-пакетами.
+     * <p>
+     * Вставка без блокировки комнаты (OPTIMISTIC-создание, другой узел) может
+     * успеть между проверкой и flush. Тогда excl_booking_overlap откатывает попытку,
+     * и пакет обрабатывается заново (OptimisticRetry): повторная проверка уже видит
+     * закоммиченное бронирование, и отказ получает только пересёкшийся с ним элемент.
+     */
+    public BookingBatchResponse createBookings(List<CreateBookingRequest> requests) {
+        return optimisticRetry.inTransaction(() -> createBatch(requests));
+    }
+
+    private BookingBatchResponse createBatch(List<CreateBookingRequest> requests) {
+        log.info("Creating batch of {} bookings", requests.size());
+
+        List<Long> roomIds = requests.stream().map(CreateBookingRequest::roomId).distinct().sorted().toList();
+
+        Map<Long, Room> rooms = roomRepository.findAllByIdWithLock(roomIds)
+                .stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        BookingBatchItemResponse[] results = new BookingBatchItemResponse[requests.size()];
+        Booking[] drafts = new Booking[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateBookingRequest request = requests.get(i);
+            Room room = rooms.get(request.roomId());
+
+            if (room == null) {
+                results[i] = BookingBatchItemResponse.rejected(i, BookingBatchItemStatus.ROOM_NOT_FOUND,
+                        new EntityNotFoundException("Room", request.roomId()).getMessage());
+            } else if (!room.isActive()) {
+                results[i] = BookingBatchItemResponse.rejected(i, BookingBatchItemStatus.ROOM_NOT_AVAILABLE,
+                        new RoomNotAvailableException(request.roomId(), "Room is not active").getMessage());
+            } else {
+                try {
+                    // Те же проверки длительности, что и при создании одного бронирования
+                    drafts[i] = new Booking(room, request.title(), request.organizerEmail(),
+                            request.startTime(), request.endTime());
+                    candidates.add(i);
+                } catch (IllegalArgumentException e) {
+                    results[i] = BookingBatchItemResponse.rejected(i, BookingBatchItemStatus.INVALID, e.getMessage());
+                }
+            }
+        }
+
+        Set<Integer> conflicting = findConflicts(candidates.stream().map(i -> drafts[i]).toList()).stream()
+                .map(candidates::get)
+                .collect(Collectors.toSet());
+        Map<Long, TreeMap<Instant, Instant>> acceptedByRoom = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i : candidates) {
+            CreateBookingRequest request = requests.get(i);
+            TreeMap<Instant, Instant> taken = acceptedByRoom.computeIfAbsent(request.roomId(), id -> new TreeMap<>());
+
+            // Принятые интервалы комнаты не пересекаются: достаточно соседа слева от конца
+            Map.Entry<Instant, Instant> before = taken.lowerEntry(request.endTime());
+
+            if (conflicting.contains(i) || (before != null && before.getValue().isAfter(request.startTime()))) {
+                results[i] = BookingBatchItemResponse.rejected(i, BookingBatchItemStatus.CONFLICT,
+                        new BookingConflictException(request.roomId(), request.startTime(), request.endTime())
+                                .getMessage());
+                continue;
+            }
+
+            taken.put(request.startTime(), request.endTime());
+            accepted.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            // id выдаются блоками последовательности, поэтому INSERT уходят
+            // JDBC-пакетами по hibernate.jdbc.batch_size при flush
+            saveAllDetectingOverlap(accepted.stream().map(i -> drafts[i]).toList());
+
+            for (int i : accepted) {
+                results[i] = BookingBatchItemResponse.created(i, bookingMapper.toResponse(drafts[i]));
+                eventPublisher.publishEvent(BookingChangedEvent.created(BookingSlot.of(drafts[i])));
+            }
+        }
+
+        BookingBatchResponse response = BookingBatchResponse.of(List.of(results));
+        log.info("Batch of {} bookings processed: {} created, {} rejected",
+                requests.size(), response.created(), response.rejected());
+
+        return response;
+    }
+
+    /**
+     * Позиции (с 0) черновиков, пересекающихся с существующими активными бронированиями,
+     * одним запросом по всему набору. Индекс здесь не используется: его попадание
+     * всё равно пришлось бы подтверждать, а промах мог отстать от БД.
+     */
+    private Set<Integer> findConflicts(List<Booking> drafts) {
+        if (drafts.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Integer> positions = bookingRepository.findConflictingPositions(
+                drafts.stream().map(draft -> draft.getRoom().getId()).toArray(Long[]::new),
+                drafts.stream().map(Booking::getStartTime).toArray(Instant[]::new),
+                drafts.stream().map(Booking::getEndTime).toArray(Instant[]::new));
+
+        return positions.stream()
+                .map(position -> position - 1)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * saveAll и flush набора; нарушение excl_booking_overlap означает, что между
+     * проверкой и вставкой закоммитилось пересекающееся бронирование, и попытка
+     * повторяется OptimisticRetry.
+     */
+    private void saveAllDetectingOverlap(List<Booking> drafts) {
+        try {
+            bookingRepository.saveAll(drafts);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (BookingConflictException.isOverlapViolation(e)) {
+                log.info("Concurrent booking overlapped a batch insert, retrying");
+                throw new OptimisticLockingFailureException("Concurrent booking overlapped a batch insert", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Серия повторяющихся встреч: правило разворачивается в вхождения на сервере
+     * в часовом поясе серии, пересечения всех вхождений с существующими
+     * бронированиями проверяются одним запросом к БД, вхождения вставляются JDBC-пакетами.
+     * <p>
+     * Занятое вхождение отклоняет всю серию, если не задан skipConflicts;
+     * с ним занятые вхождения пропускаются и возвращаются в ответе. Если между
+     * проверкой и вставкой закоммитилось пересекающееся бронирование, серия
+     * обрабатывается заново (OptimisticRetry) и повторная проверка относит его
+     * к конкретному вхождению.
+     */
+    public BookingSeriesResponse createSeries(CreateBookingSeriesRequest request) {
+        return optimisticRetry.inTransaction(() -> createSeriesAttempt(request));
+    }
+
+    private BookingSeriesResponse createSeriesAttempt(CreateBookingSeriesRequest request) {
+        log.info("Creating booking series: {}", request.title());
+
+        List<Instant> starts = RecurrenceExpander.expand(request.startTime(), request.timeZoneOrDefault(),
+                request.frequency(), request.intervalOrDefault(), request.until(), request.count());
+        Duration duration = Duration.between(request.startTime(), request.endTime());
+
+        boolean optimistic = properties.creation().mode() == CreationMode.OPTIMISTIC;
+
+        Room room = (optimistic
+                ? roomRepository.findById(request.roomId())
+                : roomRepository.findByIdWithLock(request.roomId()))
+                .orElseThrow(() -> new EntityNotFoundException("Room", request.roomId()));
+
+        if (!room.isActive()) {
+            throw new RoomNotAvailableException(request.roomId(), "Room is not active");
+        }
+
+        BookingSeries series = new BookingSeries(room, request.title(), request.organizerEmail(),
+                request.startTime(), request.endTime(),
+                request.frequency(), request.intervalOrDefault(), request.until(), request.count(),
+                request.timeZoneOrDefault());
+
+        List<Booking> drafts = starts.stream()
+                .map(start -> new Booking(series, start, start.plus(duration)))
+                .toList();
+
+        Set<Integer> conflicting = findConflicts(drafts);
+        List<Booking> accepted = new ArrayList<>(drafts.size());
+        List<TimeSlotResponse> skipped = new ArrayList<>();
+
+        for (int i = 0; i < drafts.size(); i++) {
+            Booking draft = drafts.get(i);
+
+            if (!conflicting.contains(i)) {
+                accepted.add(draft);
+            } else if (request.skipConflicts()) {
+                skipped.add(new TimeSlotResponse(draft.getStartTime(), draft.getEndTime()));
+            } else {
+                log.info("Booking series conflict detected with room: {}", request.roomId());
+                throw new BookingConflictException(request.roomId(), draft.getStartTime(), draft.getEndTime());
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            throw new BookingConflictException(request.roomId(), request.startTime(), request.endTime());
+        }
+
+        seriesRepository.save(series);
+        saveAllDetectingOverlap(accepted);
+
+        List<BookingResponse> bookings = new ArrayList<>(accepted.size());
+
+        for (Booking booking : accepted) {
+            bookings.add(bookingMapper.toResponse(booking));
+            eventPublisher.publishEvent(BookingChangedEvent.created(BookingSlot.of(booking)));
+        }
+
+        log.info("Booking series with id: {} created: {} bookings, {} skipped",
+                series.getId(), bookings.size(), skipped.size());
+
+        return BookingSeriesResponse.of(series, bookings, skipped);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingSeriesResponse getSeries(Long id) {
+        BookingSeries series = seriesRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("BookingSeries", id));
+
+        return BookingSeriesResponse.of(series,
+                bookingRepository.findAllBySeriesId(id).stream().map(bookingMapper::toResponse).toList(),
+                List.of());
+    }
+
     public BookingResponse updateBooking(Long id, UpdateBookingRequest request) {
+        return updateBooking(id, request, null);
+    }
+
+    /**
+     * Обновление без блокировки строки бронирования на время проверок: параллельное
+     * изменение обнаруживается по version при flush, и попытка повторяется заново
+     * (OptimisticRetry). expectedVersion — версия из If-Match; null — любая.
+     */
+    public BookingResponse updateBooking(Long id, UpdateBookingRequest request, Long expectedVersion) {
         log.info("Updating booking with id: {}", id);
 
-        Booking booking = bookingRepository.findByIdWithLock(id)
-                .orElseThrow(() -> new EntityNotFoundException("Booking", id));
+        return optimisticRetry.inTransaction(() -> applyUpdate(id, request, expectedVersion));
+    }
+
+    private BookingResponse applyUpdate(Long id, UpdateBookingRequest request, Long expectedVersion) {
+        Booking booking = findBookingById(id);
+
+        StaleVersionException.requireVersion("Booking", id, expectedVersion, booking.getVersion());
 
         if (!booking.isActive()) {
             throw new InvalidBookingStateException("Cannot update inactive booking");
         }
 
+        BookingSlot previous = BookingSlot.of(booking);
+
         Long roomId = request.roomId() != null ? request.roomId() : booking.getRoom().getId();
         Instant startTime = request.startTime() != null ? request.startTime() : booking.getStartTime();
         Instant endTime = request.endTime() != null ? request.endTime() : booking.getEndTime();
@@ -102,8 +454,7 @@ public class BookingService {
                               !booking.getEndTime().equals(endTime);
 
         if (roomChanged || timeChanged) {
-            boolean hasConflicts = bookingRepository.existsOverlappingBooking(roomId,
-                    startTime, endTime, id);
+            boolean hasConflicts = hasOverlappingBooking(roomId, startTime, endTime, id);
 
             if (hasConflicts) {
                 throw new BookingConflictException(roomId, startTime, endTime);
@@ -122,113 +473,424 @@ public class BookingService {
             booking.setTimeInterval(startTime, endTime);
         }
 
+        // flush здесь, а не при коммите: конфликт версий и пересечение проявляются
+        // внутри попытки, а в ответ попадает уже увеличенная версия
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (BookingConflictException.isOverlapViolation(e)) {
+                throw new BookingConflictException(roomId, startTime, endTime);
+            }
+            throw e;
+        }
+
+        eventPublisher.publishEvent(new BookingChangedEvent(previous, BookingSlot.of(booking)));
         log.info("Booking with id: {} updated", booking.getId());
 
         return bookingMapper.toResponse(booking);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Бронирование, не найденное в рабочей таблице, ищется в архиве.
+     * Оба запроса читают один снимок (REPEATABLE READ), так что строка,
+     * которую архиватор переносит между ними, не теряется.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public BookingResponse getBooking(Long id) {
-        return bookingMapper.toResponse(findBookingById(id));
+        return bookingRepository.findById(id)
+                .map(bookingMapper::toResponse)
+                .or(() -> archivedBookingRepository.findResponseById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Booking", id));
     }
 
-
-    @Transactional(readOnly = true)
-    public List<BookingResponse> getBookingByRoomAndTimeRange(Long roomId,
+    /**
+     * Страница из рабочей таблицы и архива. Оба запроса читают один снимок
+     * (REPEATABLE READ): иначе строка, перенесённая архиватором между ними,
+     * попала бы на страницу дважды или не попала бы вовсе.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<BookingResponse> getBookingByRoomAndTimeRange(Long roomId,
                                                                    Instant from,
-                                                                   Instant to) {
-        if (!roomRepository.existsById(roomId)) {
-            throw new EntityNotFoundException("Room", roomId);
+                                                                   Instant to,
+                                                                   String cursor,
+                                                                   int size) {
+        BookingKeyset after = BookingCursor.decode(cursor);
+
+        // Завершённые бронирования интервала могут уже лежать в архиве
+        CursorPage<BookingResponse> page = BookingCursor.toPage(
+                bookingRepository.findResponses(BookingSpecification.roomEquals(roomId)
+                        .and(BookingSpecification.overlaps(from, to)), after, size + 1),
+                archivedBookingRepository.findResponsesByRoomAndRange(roomId, from, to, after, size + 1),
+                size);
+
+        // Непустой результат сам подтверждает, что комната существует
+        if (page.items().isEmpty()) {
+            requireRoom(roomId);
         }
 
-        List<Booking> bookings = bookingRepository.findByRoomAndTimeRange(roomId, from, to);
-        return bookingMapper.toResponseList(bookings);
+        return page;
     }
 
     @Transactional(readOnly = true)
     public List<BookingResponse> getActiveBookingsByRoom(Long roomId) {
-        if (!roomRepository.existsById(roomId)) {
-            throw new EntityNotFoundException("Room", roomId);
+        List<BookingResponse> bookings = bookingRepository.findActiveResponsesByRoom(roomId, Instant.now());
+
+        if (bookings.isEmpty()) {
+            requireRoom(roomId);
         }
 
-        List<Booking> bookings = bookingRepository.findActiveBookingsByRoom(roomId, Instant.now());
-        return bookingMapper.toResponseList(bookings);
+        return bookings;
     }
 
-    @Transactional(readOnly = true)
-    public List<BookingResponse> getBookingsByOrganizerEmail(String email) {
-        List<Booking> bookings = bookingRepository.findByOrganizerEmail(email);
-        return bookingMapper.toResponseList(bookings);
+    /**
+     * Рабочая таблица и архив читаются одним снимком, как в getBookingByRoomAndTimeRange.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<BookingResponse> getBookingsByOrganizerEmail(String email, String cursor, int size) {
+        BookingKeyset after = BookingCursor.decode(cursor);
+
+        return BookingCursor.toPage(
+                bookingRepository.findResponses(BookingSpecification.organizerEquals(email), after, size + 1),
+                archivedBookingRepository.findResponsesByOrganizer(email, after, size + 1),
+                size);
     }
 
-    @Transactional(readOnly = true)
-    public List<BookingResponse> getBookingsByStatus(BookingStatus status) {
-        List<Booking> bookings = bookingRepository.findByStatus(status);
-        return bookingMapper.toResponseList(bookings);
+    /**
+     * Рабочая таблица и архив читаются одним снимком, как в getBookingByRoomAndTimeRange.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<BookingResponse> getBookingsByStatus(BookingStatus status, String cursor, int size) {
+        if (status.isActive()) {
+            return scroll(BookingSpecification.statusEquals(status), cursor, size);
+        }
+
+        // Завершённые бронирования могут уже лежать в архиве
+        BookingKeyset after = BookingCursor.decode(cursor);
+
+        return BookingCursor.toPage(
+                bookingRepository.findResponses(BookingSpecification.statusEquals(status), after, size + 1),
+                archivedBookingRepository.findResponsesByStatus(status, after, size + 1),
+                size);
+    }
+
+    /**
+     * Keyset-страница по (start_time, id): следующая страница начинается
+     * строго после последнего элемента предыдущей. Строки сразу читаются
+     * в BookingResponse, без загрузки сущностей.
+     */
+    private CursorPage<BookingResponse> scroll(Specification<Booking> spec, String cursor, int size) {
+        List<BookingResponse> rows = bookingRepository.findResponses(spec, BookingCursor.decode(cursor), size + 1);
+
+        return BookingCursor.toPage(rows, size);
     }
 
+    /**
+     * Условный UPDATE ... RETURNING: одна команда в БД без предварительного чтения.
+     * Если переход не состоялся, бронирование читается повторно, чтобы объяснить причину.
+     */
     @Transactional
     public BookingResponse confirmBooking(Long id) {
         log.info("Confirming booking with id: {}", id);
-        Booking booking = findBookingById(id);
+        Instant now = Instant.now();
 
-        try {
-            booking.confirm(Instant.now());
-        } catch (IllegalStateException e) {
-            throw new InvalidBookingStateException(e.getMessage());
-        }
+        BookingTransitionRow row = bookingRepository.confirmPending(id, now)
+                .orElseThrow(() -> rejectedTransition(id, booking -> booking.confirm(now)));
 
-        Booking saved = bookingRepository.save(booking);
-        log.info("Booking with id: {} confirmed", saved.getId());
+        eventPublisher.publishEvent(new BookingChangedEvent(row.previous(), row.current()));
+        log.info("Booking with id: {} confirmed", id);
 
-        return bookingMapper.toResponse(saved);
+        return row.toResponse();
     }
 
     @Transactional
     public BookingResponse cancelBooking(Long id) {
         log.info("Cancelling booking with id: {}", id);
+
+        BookingTransitionRow row = bookingRepository.cancelActive(id, Instant.now())
+                .orElseThrow(() -> rejectedTransition(id, Booking::cancel));
+
+        eventPublisher.publishEvent(new BookingChangedEvent(row.previous(), row.current()));
+        log.info("Booking with id: {} cancelled", id);
+
+        return row.toResponse();
+    }
+
+    /**
+     * Причина несостоявшегося перехода по правилам Booking: бронирования нет (404)
+     * или его статус/время не допускают переход (409).
+     */
+    private RuntimeException rejectedTransition(Long id, Consumer<Booking> transition) {
         Booking booking = findBookingById(id);
 
         try {
-            booking.cancel();
+            transition.accept(booking);
         } catch (IllegalStateException e) {
-            throw new InvalidBookingStateException(e.getMessage());
+            return new InvalidBookingStateException(e.getMessage());
         }
 
-        Booking saved = bookingRepository.save(booking);
-        log.info("Booking with id: {} cancelled", saved.getId());
-
-        return bookingMapper.toResponse(saved);
+        // Статус успел смениться между UPDATE и чтением
+        return new InvalidBookingStateException("Booking status changed concurrently: " + booking.getStatus());
     }
 
+    /**
+     * Проверка доступности одним запросом: в ответе не более
+     * booking.availability.conflict-limit конфликтов и их общее число.
+     * <p>
+     * Прогретый индекс ускоряет только ответ «занято»: его попадания подтверждаются
+     * в БД. Индекс не видит бронирований, созданных на других узлах до следующей
+     * пересборки, поэтому «свободно» (промах или неподтверждённые попадания)
+     * всегда отвечает запрос к БД.
+     */
     @Transactional(readOnly = true)
     public AvailabilityResponse checkAvailability(Long roomId,
                                                   Instant startTime,
                                                   Instant endTime) {
-        if (!roomRepository.existsById(roomId)) {
+        int conflictLimit = properties.availability().conflictLimit();
+
+        if (intervalIndex.isReady()) {
+            AvailabilityResponse indexed = findIndexedConflicts(roomId, startTime, endTime, conflictLimit);
+
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+
+        List<BookingConflictRow> rows = bookingRepository.findAvailability(roomId, startTime, endTime,
+                Limit.of(conflictLimit));
+
+        if (rows.isEmpty()) {
             throw new EntityNotFoundException("Room", roomId);
         }
 
-        if (!bookingRepository.existsOverlappingBooking(roomId, startTime, endTime)) {
+        if (!rows.getFirst().hasBooking()) {
             return AvailabilityResponse.free();
         }
 
-        List<Booking> conflicts = bookingRepository.findOverlappingBooking(roomId, startTime, endTime);
+        List<BookingResponse> conflicts = rows.stream()
+                .map(BookingConflictRow::toResponse)
+                .toList();
 
-        return AvailabilityResponse.unavailable(bookingMapper.toResponseList(conflicts));
+        return AvailabilityResponse.unavailable(conflicts, rows.getFirst().totalConflicts());
+    }
+
+    /**
+     * Конфликты из индекса, подтверждённые в БД, или null, если подтверждать нечего.
+     * Общее число в ответе учитывает только подтверждённые попадания индекса.
+     */
+    private AvailabilityResponse findIndexedConflicts(Long roomId,
+                                                      Instant startTime,
+                                                      Instant endTime,
+                                                      int conflictLimit) {
+        List<Long> conflictIds = intervalIndex.findOverlappingIds(roomId, startTime, endTime);
+
+        if (conflictIds.isEmpty()) {
+            return null;
+        }
+
+        // Индекс мог отстать от БД: попадания перепроверяются запросом
+        List<BookingResponse> conflicts = bookingRepository.findOverlappingResponsesByIds(conflictIds,
+                startTime, endTime);
+
+        if (conflicts.isEmpty()) {
+            return null;
+        }
+
+        List<BookingResponse> limited = conflicts.subList(0, Math.min(conflicts.size(), conflictLimit));
+
+        return AvailabilityResponse.unavailable(List.copyOf(limited), conflicts.size());
+    }
+
+    /**
+     * Доступность одного временного окна сразу для набора комнат.
+     * Комнаты задаются списком ID, а если он пуст — фильтром RoomFilter;
+     * фильтр, под который подходит больше {@link #MAX_AVAILABILITY_ROOMS} комнат,
+     * отклоняется, а не обрезается молча.
+     * Конфликты всех комнат выбираются одним запросом и группируются по room_id.
+     */
+    @Transactional(readOnly = true)
+    public List<RoomAvailabilityResponse> checkAvailabilityForRooms(Set<Long> roomIds,
+                                                                    RoomFilter filter,
+                                                                    Instant startTime,
+                                                                    Instant endTime) {
+        if (!endTime.isAfter(startTime)) {
+            throw new InvalidRequestException("Время окончания должно быть позже времени начала");
+        }
+
+        List<Room> rooms;
+
+        if (roomIds != null && !roomIds.isEmpty()) {
+            rooms = roomRepository.findAllById(roomIds);
+
+            if (rooms.size() < roomIds.size()) {
+                Set<Long> found = rooms.stream().map(Room::getId).collect(Collectors.toSet());
+                Long missing = roomIds.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+                throw new EntityNotFoundException("Room", missing);
+            }
+        } else {
+            rooms = findRoomsByFilter(filter != null ? filter : RoomFilter.empty());
+        }
+
+        if (rooms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = rooms.stream().map(Room::getId).toList();
+
+        // Ответ «свободна» по битовым картам мог отстать от БД, поэтому конфликты
+        // всех комнат читаются одним запросом, без отсечения по картам
+        Map<Long, List<BookingResponse>> conflictsByRoom = bookingRepository
+                .findOverlappingResponsesInRooms(ids, startTime, endTime)
+                .stream()
+                .collect(Collectors.groupingBy(BookingResponse::roomId));
+
+        return rooms.stream()
+                .sorted(Comparator.comparing(Room::getName))
+                .map(room -> {
+                    List<BookingResponse> conflicts = conflictsByRoom.getOrDefault(room.getId(), List.of());
+                    return new RoomAvailabilityResponse(room.getId(), room.getName(),
+                            conflicts.isEmpty(), conflicts);
+                })
+                .toList();
+    }
+
+    /**
+     * Комнаты под фильтром по названию; больше {@link #MAX_AVAILABILITY_ROOMS}
+     * за один запрос не обрабатывается, и такой фильтр нужно сузить (400).
+     */
+    private List<Room> findRoomsByFilter(RoomFilter filter) {
+        List<Room> rooms = roomRepository.findBy(RoomSpecification.fromFilter(filter),
+                query -> query.sortBy(Sort.by("name")).limit(MAX_AVAILABILITY_ROOMS + 1).all());
+
+        if (rooms.size() > MAX_AVAILABILITY_ROOMS) {
+            throw new InvalidRequestException(
+                    "Под фильтр подходит больше %d комнат, уточните фильтр".formatted(MAX_AVAILABILITY_ROOMS));
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Ближайшие свободные слоты заданной длительности в активных комнатах,
+     * подходящих под фильтр. Горизонт поиска ограничен {@link #MAX_FREE_SLOT_HORIZON},
+     * начала слотов выровнены по сетке {@link #FREE_SLOT_STEP}.
+     */
+    @Transactional(readOnly = true)
+    public List<RoomFreeSlotsResponse> findFreeSlots(RoomFilter filter,
+                                                     Duration duration,
+                                                     Instant from,
+                                                     Instant to,
+                                                     int limit) {
+        Instant now = Instant.now();
+        Instant searchFrom = from != null && from.isAfter(now) ? from : now;
+        Instant maxTo = searchFrom.plus(MAX_FREE_SLOT_HORIZON);
+        Instant searchTo = to != null && to.isBefore(maxTo) ? to : maxTo;
+
+        RoomFilter source = filter != null ? filter : RoomFilter.empty();
+        RoomFilter activeRooms = new RoomFilter(source.name(), source.capacity(), source.description(), true);
+
+        List<Room> rooms = findRoomsByFilter(activeRooms);
+
+        if (rooms.isEmpty() || !searchTo.isAfter(searchFrom)) {
+            return List.of();
+        }
+
+        List<Long> ids = rooms.stream().map(Room::getId).toList();
+
+        if (occupancyBitmap.isReady() && OccupancyBitmap.isAligned(duration)) {
+            return findFreeSlotsByBitmap(rooms, duration, searchFrom, searchTo, limit);
+        }
+
+        log.debug("Searching free slots of {} in {} rooms between {} and {}",
+                duration, rooms.size(), searchFrom, searchTo);
+
+        Map<Long, List<BookingSlot>> busyByRoom = findBusySlots(ids, searchFrom, searchTo);
+
+        return rooms.stream()
+                .map(room -> new RoomFreeSlotsResponse(room.getId(), room.getName(), room.getCapacity(),
+                        FreeSlotFinder.find(busyByRoom.getOrDefault(room.getId(), List.of()),
+                                searchFrom, searchTo, duration, FREE_SLOT_STEP, limit)))
+                .toList();
+    }
+
+    /**
+     * Битовые карты предлагают окна-кандидаты, а один запрос за бронированиями до конца
+     * последнего кандидата их подтверждает: карты могли отстать от БД. Комнаты, где
+     * кандидат оказался занят, пересчитываются точным поиском по данным из БД.
+     */
+    private List<RoomFreeSlotsResponse> findFreeSlotsByBitmap(List<Room> rooms,
+                                                              Duration duration,
+                                                              Instant searchFrom,
+                                                              Instant searchTo,
+                                                              int limit) {
+        Map<Long, List<TimeSlotResponse>> candidates = new HashMap<>();
+
+        for (Room room : rooms) {
+            candidates.put(room.getId(),
+                    occupancyBitmap.findFreeWindows(room.getId(), searchFrom, searchTo, duration, limit));
+        }
+
+        Instant confirmTo = candidates.values().stream()
+                .flatMap(List::stream)
+                .map(TimeSlotResponse::endTime)
+                .max(Comparator.naturalOrder())
+                .orElse(searchFrom);
+
+        Map<Long, List<BookingSlot>> busyByRoom = confirmTo.isAfter(searchFrom)
+                ? findBusySlots(candidates.keySet(), searchFrom, confirmTo)
+                : Map.of();
+
+        List<Long> stale = rooms.stream()
+                .map(Room::getId)
+                .filter(id -> candidates.get(id).stream().anyMatch(window -> busyByRoom
+                        .getOrDefault(id, List.of()).stream()
+                        .anyMatch(slot -> slot.overlaps(window.startTime(), window.endTime()))))
+                .toList();
+
+        if (!stale.isEmpty()) {
+            log.debug("Occupancy bitmap is stale for rooms {}, recomputing free slots", stale);
+
+            Map<Long, List<BookingSlot>> exact = findBusySlots(stale, searchFrom, searchTo);
+
+            for (Long id : stale) {
+                candidates.put(id, FreeSlotFinder.find(exact.getOrDefault(id, List.of()),
+                        searchFrom, searchTo, duration, FREE_SLOT_STEP, limit));
+            }
+        }
+
+        return rooms.stream()
+                .map(room -> new RoomFreeSlotsResponse(room.getId(), room.getName(), room.getCapacity(),
+                        candidates.get(room.getId())))
+                .toList();
+    }
+
+    private Map<Long, List<BookingSlot>> findBusySlots(Collection<Long> roomIds, Instant from, Instant to) {
+        return bookingRepository.findActiveSlotsInRooms(roomIds, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookingSlot::roomId));
     }
 
     @Transactional
     public int markExpiredBookings() {
-        return bookingRepository.markExpiredBookings(Instant.now());
+        Instant now = Instant.now();
+        int count = bookingRepository.markExpiredBookings(now);
+
+        if (count > 0) {
+            eventPublisher.publishEvent(new BookingsExpiredEvent(now));
+        }
+
+        return count;
     }
 
     @Transactional(readOnly = true)
     public long countActiveBookingsByRoom(Long roomId) {
-        if (!roomRepository.existsById(roomId)) {
-            throw new EntityNotFoundException("Room", roomId);
+        long count = activeBookingCounters.isReady()
+                ? activeBookingCounters.count(roomId, Instant.now())
+                : bookingRepository.countActiveBookingsByRoom(roomId, Instant.now());
+
+        if (count == 0) {
+            requireRoom(roomId);
         }
 
-        return bookingRepository.countActiveBookingsByRoom(roomId, Instant.now());
+        return count;
     }
 }
\ No newline at end of file
@@ -2,18 +2,27 @@ package org.nurfet.bookingsystem.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.dto.spec.RoomCountMode;
 import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.dto.spec.RoomSearchMode;
 import org.nurfet.bookingsystem.specification.RoomSpecification;
 import org.nurfet.bookingsystem.dto.request.UpdateRoomRequest;
 import org.nurfet.bookingsystem.exception.EntityNotFoundException;
+import org.nurfet.bookingsystem.exception.StaleVersionException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 import org.nurfet.bookingsystem.dto.request.CreateRoomRequest;
 import org.nurfet.bookingsystem.dto.response.RoomResponse;
 import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.event.RoomChangedEvent;
 import org.nurfet.bookingsystem.mapper.room.RoomMapper;
 import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.lock.OptimisticRetry;
+import org.nurfet.bookingsystem.service.room.RoomDirectory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,6 +32,9 @@ public class RoomService {
 
     private final RoomRepository roomRepository;
     private final RoomMapper roomMapper;
+    private final RoomDirectory roomDirectory;
+    private final OptimisticRetry optimisticRetry;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Room findRoomById(Long id) {
         return roomRepository.findById(id)
@@ -37,15 +49,29 @@ public class RoomService {
         Room saved = roomRepository.save(room);
         log.info("Room with id: {} created", saved.getId());
 
-        return roomMapper.toResponse(saved);
+        return published(saved);
     }
 
-    @Transactional
     public RoomResponse updateRoom(Long id, UpdateRoomRequest request) {
+        return updateRoom(id, request, null);
+    }
+
+    /**
+     * Частичное обновление под оптимистической блокировкой: при гонке попытка
+     * повторяется на свежем состоянии (OptimisticRetry). expectedVersion — версия
+     * из If-Match; null — любая.
+     */
+    public RoomResponse updateRoom(Long id, UpdateRoomRequest request, Long expectedVersion) {
         log.info("Updating room with id: {}", id);
 
+        return optimisticRetry.inTransaction(() -> applyUpdate(id, request, expectedVersion));
+    }
+
+    private RoomResponse applyUpdate(Long id, UpdateRoomRequest request, Long expectedVersion) {
         Room room = findRoomById(id);
 
+        StaleVersionException.requireVersion("Room", id, expectedVersion, room.getVersion());
+
         if (request.name() != null) {
             room.setName(request.name());
         }
@@ -66,9 +92,22 @@ public class RoomService {
             }
         }
 
+        // Версия увеличивается при flush; в ответ должна попасть новая
+        roomRepository.flush();
         log.info("Room with id: {} updated", id);
 
-        return roomMapper.toResponse(room);
+        return published(room);
+    }
+
+    /**
+     * Ответ с состоянием комнаты и событие с ним же: RoomDirectory применит
+     * его после коммита.
+     */
+    private RoomResponse published(Room room) {
+        RoomResponse response = roomMapper.toResponse(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), response));
+
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -78,10 +117,67 @@ public class RoomService {
 
     @Transactional(readOnly = true)
     public Page<RoomResponse> searchRoom(RoomFilter filter, Pageable pageable) {
+        if (roomDirectory.isReady() && roomDirectory.supports(pageable.getSort())) {
+            return roomDirectory.search(filter, pageable);
+        }
+
         return roomRepository.findAll(RoomSpecification.fromFilter(filter), pageable)
                 .map(roomMapper::toResponse);
     }
 
+    /**
+     * Поиск с ранжированием по сходству названия и описания (pg_trgm).
+     * Без текстовых условий ранжировать нечего — обычный поиск.
+     */
+    @Transactional(readOnly = true)
+    public Page<RoomResponse> searchRoomsBySimilarity(RoomFilter filter, Pageable pageable) {
+        if (!hasText(filter)) {
+            return searchRoom(filter, pageable);
+        }
+
+        return roomRepository.searchBySimilarity(filter, pageable)
+                .map(roomMapper::toResponse);
+    }
+
+    /**
+     * Поиск без точного count(*): NONE — Slice по size + 1 строкам,
+     * ESTIMATE — Page с оценкой total по плану запроса. Справочник в памяти
+     * считает бесплатно и всегда отдаёт точную Page.
+     */
+    @Transactional(readOnly = true)
+    public Slice<RoomResponse> searchRoomWithoutCount(RoomFilter filter,
+                                                      RoomSearchMode mode,
+                                                      RoomCountMode count,
+                                                      Pageable pageable) {
+        RoomSearchMode effectiveMode = hasText(filter) ? mode : RoomSearchMode.SUBSTRING;
+
+        if (effectiveMode == RoomSearchMode.SUBSTRING
+                && roomDirectory.isReady() && roomDirectory.supports(pageable.getSort())) {
+            return roomDirectory.search(filter, pageable);
+        }
+
+        Slice<RoomResponse> slice = (effectiveMode == RoomSearchMode.SIMILARITY
+                ? roomRepository.sliceBySimilarity(filter, pageable)
+                : roomRepository.findBy(RoomSpecification.fromFilter(filter), query -> query.slice(pageable)))
+                .map(roomMapper::toResponse);
+
+        if (count != RoomCountMode.ESTIMATE) {
+            return slice;
+        }
+
+        long seen = pageable.isPaged() ? pageable.getOffset() + slice.getNumberOfElements() : slice.getNumberOfElements();
+        long total = slice.hasNext()
+                ? Math.max(roomRepository.estimateCount(filter, effectiveMode), seen + 1)
+                : seen;
+
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    private static boolean hasText(RoomFilter filter) {
+        return (filter.name() != null && !filter.name().isBlank())
+                || (filter.description() != null && !filter.description().isBlank());
+    }
+
     @Transactional(readOnly = true)
     public Page<RoomResponse> getRooms(Pageable pageable) {
         return searchRoom(RoomFilter.empty(), pageable);
@@ -96,6 +192,6 @@ public class RoomService {
         Room saved = roomRepository.save(room);
         log.info("Room with id: {} deactivated", saved.getId());
 
-        return roomMapper.toResponse(saved);
+        return published(saved);
     }
 }
\ No newline at end of file
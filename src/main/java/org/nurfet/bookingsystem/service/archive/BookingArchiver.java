@@ -0,0 +1,80 @@
+package org.nurfet.bookingsystem.service.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Перенос завершённых бронирований в bookings_archive.
+ * <p>
+ * Рабочая таблица остаётся маленькой: в ней живут активные бронирования
+ * и завершённые не старше booking.archive.retention. Это держит компактными
+ * GiST-индексы excl_booking_overlap и выборку истекших бронирований,
+ * а опустевшие старые партиции можно удалять. Перенос идёт пакетами
+ * в отдельных транзакциях, как и пометка истекших (BookingExpiryProcessor).
+ */
+@Service
+@Slf4j
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingProperties.Archive settings;
+    private final Counter archivedCounter;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           PlatformTransactionManager transactionManager,
+                           BookingProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = properties.archive();
+        this.archivedCounter = Counter.builder("booking.archive.archived")
+                .description("Бронирования, перенесённые в архив")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    /**
+     * Переносит бронирования, завершённые раньше now - retention.
+     *
+     * @return число перенесённых бронирований
+     */
+    public int archive(Instant now) {
+        Instant before = now.minus(settings.retention());
+
+        int total = 0;
+        int batches = 0;
+
+        while (batches < settings.maxBatches()) {
+            int count = Objects.requireNonNull(transactionTemplate.execute(status ->
+                    bookingRepository.archiveBatch(before, settings.batchSize())));
+
+            total += count;
+            batches++;
+
+            if (count < settings.batchSize()) {
+                break;
+            }
+        }
+
+        archivedCounter.increment(total);
+
+        if (total > 0) {
+            log.info("Archived {} bookings finished before {} in {} batches", total, before, batches);
+        }
+
+        return total;
+    }
+}
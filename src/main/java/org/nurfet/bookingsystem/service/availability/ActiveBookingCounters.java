@@ -0,0 +1,108 @@
+package org.nurfet.bookingsystem.service.availability;
+
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Счётчики активных бронирований по комнатам в памяти — то же значение,
+ * что BookingRepository.countActiveBookingsByRoom: PENDING/CONFIRMED с end_time > now.
+ * <p>
+ * Вместе со счётчиком хранится очередь учтённых бронирований по времени окончания.
+ * Перед чтением из её головы снимаются закончившиеся к этому моменту бронирования,
+ * так что чтение стоит O(1) амортизированно и не зависит от задания истечения.
+ * Счётчики меняются после коммита транзакций BookingService (создание, изменение,
+ * перенос в другую комнату, подтверждение, отмена) и периодически сверяются с БД,
+ * чтобы учесть изменения с других узлов; события, пришедшие во время сверки,
+ * применяются заново после неё ({@link ActiveSlotProjection}).
+ */
+@Component
+public class ActiveBookingCounters extends ActiveSlotProjection {
+
+    private static final Comparator<BookingSlot> END_ORDER = Comparator
+            .comparing(BookingSlot::endTime)
+            .thenComparing(BookingSlot::id);
+
+    private final Map<Long, Integer> counts = new HashMap<>();
+    private final NavigableMap<BookingSlot, Boolean> byEnd = new TreeMap<>(END_ORDER);
+
+    public ActiveBookingCounters(BookingRepository bookingRepository, BookingProperties properties) {
+        super(bookingRepository, properties.counters().enabled());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.counters.refresh-interval:10m}",
+               initialDelayString = "${booking.counters.refresh-interval:10m}")
+    public void scheduledRefresh() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    public synchronized long count(Long roomId, Instant now) {
+        drain(now);
+        return counts.getOrDefault(roomId, 0);
+    }
+
+    @Override
+    protected void reset(List<BookingSlot> active) {
+        counts.clear();
+        byEnd.clear();
+        active.forEach(this::add);
+    }
+
+    /**
+     * Уже закончившееся бронирование не считается активным.
+     */
+    @Override
+    protected boolean accepts(BookingSlot slot) {
+        return slot.endTime().isAfter(Instant.now());
+    }
+
+    /**
+     * Истекают только закончившиеся бронирования, они и так снимаются при чтении.
+     */
+    @Override
+    protected void expire(Instant before) {
+        drain(before);
+    }
+
+    @Override
+    protected void add(BookingSlot slot) {
+        byEnd.put(slot, Boolean.TRUE);
+        counts.merge(slot.roomId(), 1, Integer::sum);
+    }
+
+    @Override
+    protected void remove(BookingSlot slot) {
+        if (byEnd.remove(slot) != null) {
+            decrement(slot.roomId());
+        }
+    }
+
+    /**
+     * Снимает бронирования с end_time <= now.
+     */
+    private void drain(Instant now) {
+        Map.Entry<BookingSlot, Boolean> head;
+
+        while ((head = byEnd.firstEntry()) != null && !head.getKey().endTime().isAfter(now)) {
+            BookingSlot ended = head.getKey();
+            untrack(ended.id());
+            remove(ended);
+        }
+    }
+
+    private void decrement(Long roomId) {
+        counts.computeIfPresent(roomId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,170 @@
+package org.nurfet.bookingsystem.service.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Общая основа in-memory проекций активных (PENDING/CONFIRMED) бронирований:
+ * загрузка из БД, события после коммита и учёт бронирований по id.
+ * <p>
+ * Пересборка читает БД без блокировки, поэтому события, пришедшие во время чтения,
+ * копятся и применяются заново после замены структур: иначе изменение, закоммиченное
+ * между чтением и заменой, терялось бы до следующей пересборки. Применение события
+ * идемпотентно (бронирование сначала снимается по id), так что повтор уже
+ * учтённого чтением изменения ничего не портит.
+ * <p>
+ * Изменения с других узлов видны только после пересборки, поэтому проекция —
+ * подсказка: ответы, от которых зависит отказ пользователю, подтверждаются в БД.
+ */
+@Slf4j
+public abstract class ActiveSlotProjection {
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+
+    private final Object rebuildLock = new Object();
+    private final Map<Long, BookingSlot> slotsById = new HashMap<>();
+    private List<Runnable> pending;
+    private volatile boolean ready;
+
+    protected ActiveSlotProjection(BookingRepository bookingRepository, boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+
+            List<BookingSlot> active;
+
+            try {
+                active = bookingRepository.findActiveSlots(Instant.now());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                slotsById.clear();
+                active.forEach(slot -> slotsById.put(slot.id(), slot));
+                reset(active);
+
+                List<Runnable> missed = pending;
+                pending = null;
+                missed.forEach(Runnable::run);
+
+                this.ready = true;
+
+                log.info("{} rebuilt: {} active bookings, {} events replayed",
+                        getClass().getSimpleName(), slotsById.size(), missed.size());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        apply(event);
+
+        if (pending != null) {
+            pending.add(() -> apply(event));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingsExpired(BookingsExpiredEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        expire(event.expiredBefore());
+
+        if (pending != null) {
+            pending.add(() -> expire(event.expiredBefore()));
+        }
+    }
+
+    private void apply(BookingChangedEvent event) {
+        if (event.previous() != null) {
+            untrack(event.previous().id());
+        }
+
+        BookingSlot current = event.current();
+
+        if (current != null && current.isActive() && accepts(current)) {
+            untrack(current.id());
+            slotsById.put(current.id(), current);
+            add(current);
+        }
+    }
+
+    /**
+     * Снимает бронирования, закончившиеся раньше before.
+     */
+    protected void expire(Instant before) {
+        slotsById.values().stream()
+                .filter(slot -> slot.endTime().isBefore(before))
+                .map(BookingSlot::id)
+                .toList()
+                .forEach(this::untrack);
+    }
+
+    protected final void untrack(Long bookingId) {
+        BookingSlot tracked = slotsById.remove(bookingId);
+
+        if (tracked != null) {
+            remove(tracked);
+        }
+    }
+
+    /**
+     * Учитывать ли активное бронирование из события.
+     */
+    protected boolean accepts(BookingSlot slot) {
+        return true;
+    }
+
+    /**
+     * Заменяет структуры проекции построенными по active. Вызывается под блокировкой.
+     */
+    protected abstract void reset(List<BookingSlot> active);
+
+    protected abstract void add(BookingSlot slot);
+
+    protected abstract void remove(BookingSlot slot);
+}
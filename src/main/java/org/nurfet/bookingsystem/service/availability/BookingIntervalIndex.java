@@ -0,0 +1,129 @@
+package org.nurfet.bookingsystem.service.availability;
+
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory индекс активных (PENDING/CONFIRMED) бронирований по комнатам.
+ * <p>
+ * Для каждой комнаты хранится отсортированная по началу карта интервалов.
+ * Так как длительность бронирования не превышает {@link Booking#MAX_DURATION},
+ * кандидаты на пересечение с [start, end) лежат в диапазоне начал
+ * (start - MAX_DURATION, end), и поиск стоит O(log n + k).
+ * <p>
+ * Индекс обновляется после коммита транзакций BookingService и периодически
+ * пересобирается из БД ({@link ActiveSlotProjection}). Он лишь ускоряет проверки:
+ * найденное им пересечение перепроверяется в БД, а окончательную гарантию
+ * отсутствия пересечений даёт ограничение excl_booking_overlap.
+ */
+@Component
+public class BookingIntervalIndex extends ActiveSlotProjection {
+
+    private volatile Map<Long, ConcurrentNavigableMap<SlotKey, BookingSlot>> rooms = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, BookingProperties properties) {
+        super(bookingRepository, properties.index().enabled());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.index.refresh-interval:10m}",
+               initialDelayString = "${booking.index.refresh-interval:10m}")
+    public void scheduledRefresh() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    protected void reset(List<BookingSlot> active) {
+        Map<Long, ConcurrentNavigableMap<SlotKey, BookingSlot>> newRooms = new ConcurrentHashMap<>();
+
+        for (BookingSlot slot : active) {
+            newRooms.computeIfAbsent(slot.roomId(), id -> new ConcurrentSkipListMap<>())
+                    .put(SlotKey.of(slot), slot);
+        }
+
+        this.rooms = newRooms;
+    }
+
+    public boolean hasOverlap(Long roomId, Instant startTime, Instant endTime, Long excludeId) {
+        return candidates(roomId, startTime, endTime)
+                .anyMatch(slot -> !slot.id().equals(excludeId));
+    }
+
+    public boolean hasOverlap(Long roomId, Instant startTime, Instant endTime) {
+        return hasOverlap(roomId, startTime, endTime, null);
+    }
+
+    /**
+     * ID пересекающихся с [startTime, endTime) бронирований в порядке начала.
+     */
+    public List<Long> findOverlappingIds(Long roomId, Instant startTime, Instant endTime) {
+        return candidates(roomId, startTime, endTime)
+                .map(BookingSlot::id)
+                .toList();
+    }
+
+    private Stream<BookingSlot> candidates(Long roomId, Instant startTime, Instant endTime) {
+        ConcurrentNavigableMap<SlotKey, BookingSlot> timeline = rooms.get(roomId);
+
+        if (timeline == null) {
+            return Stream.empty();
+        }
+
+        SlotKey from = SlotKey.lowest(startTime.minus(Booking.MAX_DURATION));
+        SlotKey to = SlotKey.lowest(endTime);
+
+        return timeline.subMap(from, false, to, false)
+                .values()
+                .stream()
+                .filter(slot -> slot.overlaps(startTime, endTime));
+    }
+
+    @Override
+    protected void add(BookingSlot slot) {
+        rooms.computeIfAbsent(slot.roomId(), id -> new ConcurrentSkipListMap<>())
+                .put(SlotKey.of(slot), slot);
+    }
+
+    @Override
+    protected void remove(BookingSlot slot) {
+        ConcurrentNavigableMap<SlotKey, BookingSlot> timeline = rooms.get(slot.roomId());
+
+        if (timeline != null) {
+            timeline.remove(SlotKey.of(slot));
+        }
+    }
+
+    private record SlotKey(Instant startTime, long id) implements Comparable<SlotKey> {
+
+        private static final Comparator<SlotKey> ORDER = Comparator
+                .comparing(SlotKey::startTime)
+                .thenComparingLong(SlotKey::id);
+
+        static SlotKey of(BookingSlot slot) {
+            return new SlotKey(slot.startTime(), slot.id());
+        }
+
+        static SlotKey lowest(Instant startTime) {
+            return new SlotKey(startTime, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(SlotKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
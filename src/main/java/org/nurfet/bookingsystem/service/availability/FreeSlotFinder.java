@@ -0,0 +1,84 @@
+package org.nurfet.bookingsystem.service.availability;
+
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.event.BookingSlot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поиск свободных слотов одним проходом по отсортированным бронированиям комнаты.
+ * <p>
+ * Начала всех слотов лежат на сетке {@code step} (UTC): следующий слот в окне
+ * начинается с первого узла сетки не раньше конца предыдущего, так что при
+ * длительности, кратной шагу, слоты идут встык.
+ */
+public final class FreeSlotFinder {
+
+    private FreeSlotFinder() {
+    }
+
+    /**
+     * @param busy     активные бронирования комнаты, отсортированные по началу
+     * @param from     начало окна поиска
+     * @param to       конец окна поиска (слот должен закончиться не позже)
+     * @param duration длительность слота
+     * @param step     шаг сетки для начала слота
+     * @param limit    максимальное число слотов
+     */
+    public static List<TimeSlotResponse> find(List<BookingSlot> busy,
+                                              Instant from,
+                                              Instant to,
+                                              Duration duration,
+                                              Duration step,
+                                              int limit) {
+        List<TimeSlotResponse> slots = new ArrayList<>(limit);
+        Instant cursor = alignUp(from, step);
+
+        for (BookingSlot booking : busy) {
+            if (slots.size() >= limit || !booking.startTime().isBefore(to)) {
+                break;
+            }
+
+            cursor = fill(slots, cursor, booking.startTime(), duration, step, limit);
+
+            Instant busyUntil = alignUp(booking.endTime(), step);
+            if (busyUntil.isAfter(cursor)) {
+                cursor = busyUntil;
+            }
+        }
+
+        fill(slots, cursor, to, duration, step, limit);
+
+        return slots;
+    }
+
+    private static Instant fill(List<TimeSlotResponse> slots,
+                                Instant cursor,
+                                Instant gapEnd,
+                                Duration duration,
+                                Duration step,
+                                int limit) {
+        while (slots.size() < limit && !cursor.plus(duration).isAfter(gapEnd)) {
+            Instant end = cursor.plus(duration);
+            slots.add(new TimeSlotResponse(cursor, end));
+            cursor = alignUp(end, step);
+        }
+
+        return cursor;
+    }
+
+    static Instant alignUp(Instant instant, Duration step) {
+        long stepMillis = step.toMillis();
+        long millis = instant.toEpochMilli();
+        long remainder = Math.floorMod(millis, stepMillis);
+
+        if (remainder == 0 && instant.getNano() % 1_000_000 == 0) {
+            return instant;
+        }
+
+        return Instant.ofEpochMilli(millis - remainder + stepMillis);
+    }
+}
@@ -0,0 +1,361 @@
+package org.nurfet.bookingsystem.service.availability;
+
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Битовые карты занятости активных (PENDING/CONFIRMED) бронирований.
+ * <p>
+ * Сутки (UTC) делятся на 96 слотов по {@link #SLOT}; для каждой комнаты и каждого
+ * дня с бронированиями хранятся две маски по два long:
+ * <ul>
+ *     <li>full — слот целиком покрыт бронированием;</li>
+ *     <li>partial — слот задет бронированием, не выровненным по сетке.
+ *     Такие бронирования дополнительно хранятся списком для точной проверки.</li>
+ * </ul>
+ * Окно, выровненное по сетке, свободно тогда и только тогда, когда в его
+ * слотах нет ни одного бита. Список бронирований partial-слота нужен, чтобы
+ * при удалении бронирования снять бит, только если слот больше никто не задевает.
+ * <p>
+ * Обновление — как у {@link BookingIntervalIndex}: события после коммита
+ * и периодическая пересборка из БД ({@link ActiveSlotProjection}). Карты могут
+ * отставать от БД, поэтому свободные по ним окна перед ответом подтверждаются запросом.
+ */
+@Component
+public class OccupancyBitmap extends ActiveSlotProjection {
+
+    public static final Duration SLOT = Booking.MIN_DURATION;
+
+    private static final long SLOT_SECONDS = SLOT.toSeconds();
+    private static final int SLOTS_PER_DAY = (int) (Duration.ofDays(1).toSeconds() / SLOT_SECONDS);
+    private static final int WORDS = (SLOTS_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    private volatile Map<Long, RoomTimeline> rooms = new ConcurrentHashMap<>();
+
+    public OccupancyBitmap(BookingRepository bookingRepository, BookingProperties properties) {
+        super(bookingRepository, properties.occupancy().enabled());
+    }
+
+    /**
+     * Можно ли искать окна этой длительности по битам без точной проверки.
+     */
+    public static boolean isAligned(Duration duration) {
+        return duration.toSeconds() % SLOT_SECONDS == 0 && duration.getNano() == 0;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.occupancy.refresh-interval:10m}",
+               initialDelayString = "${booking.occupancy.refresh-interval:10m}")
+    public void scheduledRefresh() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    protected void reset(List<BookingSlot> active) {
+        Map<Long, RoomTimeline> newRooms = new ConcurrentHashMap<>();
+
+        for (BookingSlot slot : active) {
+            newRooms.computeIfAbsent(slot.roomId(), id -> new RoomTimeline()).add(slot);
+        }
+
+        this.rooms = newRooms;
+    }
+
+    /**
+     * Окна длительности duration, свободные в комнате. Окна выровнены по сетке
+     * и идут встык, как у {@link FreeSlotFinder}; частично занятый слот считается занятым.
+     *
+     * @throws IllegalArgumentException если duration не кратна {@link #SLOT}
+     */
+    public List<TimeSlotResponse> findFreeWindows(Long roomId,
+                                                  Instant from,
+                                                  Instant to,
+                                                  Duration duration,
+                                                  int limit) {
+        if (!isAligned(duration) || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be a positive multiple of " + SLOT);
+        }
+
+        RoomTimeline timeline = rooms.get(roomId);
+
+        long length = duration.toSeconds() / SLOT_SECONDS;
+        long position = ceilSlot(from);
+        long end = floorSlot(to);
+
+        List<TimeSlotResponse> windows = new ArrayList<>(limit);
+
+        while (windows.size() < limit && position + length <= end) {
+            long busy = end;
+
+            if (timeline != null) {
+                position = Math.min(timeline.nextFree(position, end), end);
+                busy = timeline.nextBusy(position, end);
+            }
+
+            while (windows.size() < limit && position + length <= busy) {
+                windows.add(new TimeSlotResponse(toInstant(position), toInstant(position + length)));
+                position += length;
+            }
+
+            position = Math.max(position, busy);
+        }
+
+        return windows;
+    }
+
+    @Override
+    protected void add(BookingSlot slot) {
+        rooms.computeIfAbsent(slot.roomId(), id -> new RoomTimeline()).add(slot);
+    }
+
+    @Override
+    protected void remove(BookingSlot slot) {
+        RoomTimeline timeline = rooms.get(slot.roomId());
+
+        if (timeline != null) {
+            timeline.remove(slot);
+        }
+    }
+
+    private static long floorSlot(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), SLOT_SECONDS);
+    }
+
+    private static long ceilSlot(Instant instant) {
+        long seconds = instant.getEpochSecond() + (instant.getNano() > 0 ? 1 : 0);
+        return Math.ceilDiv(seconds, SLOT_SECONDS);
+    }
+
+    private static Instant toInstant(long slot) {
+        return Instant.ofEpochSecond(slot * SLOT_SECONDS);
+    }
+
+    /**
+     * Маска битов [from, to) внутри слова с номером word.
+     */
+    private static long rangeMask(int word, int from, int to) {
+        int lo = Math.max(from - word * Long.SIZE, 0);
+        int hi = Math.min(to - word * Long.SIZE, Long.SIZE);
+
+        if (lo >= hi) {
+            return 0L;
+        }
+
+        long upper = hi == Long.SIZE ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    private static final class DayBits {
+
+        private final long[] full = new long[WORDS];
+        private final long[] partial = new long[WORDS];
+        private List<BookingSlot> edges;
+
+        void set(long[] bits, int from, int to, boolean value) {
+            for (int word = from / Long.SIZE; word < WORDS && word * Long.SIZE < to; word++) {
+                long mask = rangeMask(word, from, to);
+                bits[word] = value ? bits[word] | mask : bits[word] & ~mask;
+            }
+        }
+
+        /**
+         * Первый занятый (full или partial) слот дня не раньше from, либо -1.
+         */
+        int nextBusy(int from) {
+            for (int word = from / Long.SIZE; word < WORDS; word++) {
+                long busy = (full[word] | partial[word]) & rangeMask(word, from, SLOTS_PER_DAY);
+
+                if (busy != 0) {
+                    return word * Long.SIZE + Long.numberOfTrailingZeros(busy);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Первый свободный слот дня не раньше from, либо -1.
+         */
+        int nextFree(int from) {
+            for (int word = from / Long.SIZE; word < WORDS; word++) {
+                long free = ~(full[word] | partial[word]) & rangeMask(word, from, SLOTS_PER_DAY);
+
+                if (free != 0) {
+                    return word * Long.SIZE + Long.numberOfTrailingZeros(free);
+                }
+            }
+            return -1;
+        }
+
+        boolean isEmpty() {
+            for (int word = 0; word < WORDS; word++) {
+                if (full[word] != 0 || partial[word] != 0) {
+                    return false;
+                }
+            }
+            return edges == null || edges.isEmpty();
+        }
+    }
+
+    private static final class RoomTimeline {
+
+        private final NavigableMap<Long, DayBits> days = new TreeMap<>();
+
+        synchronized void add(BookingSlot slot) {
+            long first = floorSlot(slot.startTime());
+            long last = ceilSlot(slot.endTime()) - 1;
+            long fullFrom = ceilSlot(slot.startTime());
+            long fullTo = floorSlot(slot.endTime());
+
+            apply(fullFrom, fullTo, true);
+
+            for (long edge : edgeSlots(first, last, fullFrom, fullTo)) {
+                DayBits bits = day(Math.floorDiv(edge, SLOTS_PER_DAY));
+                int bit = (int) Math.floorMod(edge, SLOTS_PER_DAY);
+
+                if (bits.edges == null) {
+                    bits.edges = new ArrayList<>(2);
+                }
+                if (!bits.edges.contains(slot)) {
+                    bits.edges.add(slot);
+                }
+                bits.set(bits.partial, bit, bit + 1, true);
+            }
+        }
+
+        synchronized void remove(BookingSlot slot) {
+            long first = floorSlot(slot.startTime());
+            long last = ceilSlot(slot.endTime()) - 1;
+            long fullFrom = ceilSlot(slot.startTime());
+            long fullTo = floorSlot(slot.endTime());
+
+            apply(fullFrom, fullTo, false);
+
+            for (long edge : edgeSlots(first, last, fullFrom, fullTo)) {
+                long dayNumber = Math.floorDiv(edge, SLOTS_PER_DAY);
+                DayBits bits = days.get(dayNumber);
+
+                if (bits == null) {
+                    continue;
+                }
+
+                int bit = (int) Math.floorMod(edge, SLOTS_PER_DAY);
+                Instant slotStart = toInstant(edge);
+                Instant slotEnd = toInstant(edge + 1);
+
+                if (bits.edges != null) {
+                    bits.edges.removeIf(other -> other.id().equals(slot.id()));
+                }
+
+                boolean stillPartial = bits.edges != null && bits.edges.stream()
+                        .anyMatch(other -> other.overlaps(slotStart, slotEnd));
+                bits.set(bits.partial, bit, bit + 1, stillPartial);
+            }
+
+            for (long dayNumber = Math.floorDiv(first, SLOTS_PER_DAY);
+                 dayNumber <= Math.floorDiv(last, SLOTS_PER_DAY); dayNumber++) {
+                DayBits bits = days.get(dayNumber);
+
+                if (bits != null && bits.isEmpty()) {
+                    days.remove(dayNumber);
+                }
+            }
+        }
+
+        synchronized long nextBusy(long position, long limit) {
+            for (Map.Entry<Long, DayBits> entry
+                    : days.tailMap(Math.floorDiv(position, SLOTS_PER_DAY), true).entrySet()) {
+                long dayStart = entry.getKey() * SLOTS_PER_DAY;
+
+                if (dayStart >= limit) {
+                    break;
+                }
+
+                int bit = entry.getValue().nextBusy((int) Math.max(position - dayStart, 0));
+
+                if (bit >= 0) {
+                    return Math.min(dayStart + bit, limit);
+                }
+            }
+
+            return limit;
+        }
+
+        synchronized long nextFree(long position, long limit) {
+            while (position < limit) {
+                long dayNumber = Math.floorDiv(position, SLOTS_PER_DAY);
+                DayBits bits = days.get(dayNumber);
+
+                if (bits == null) {
+                    return position;
+                }
+
+                long dayStart = dayNumber * SLOTS_PER_DAY;
+                int bit = bits.nextFree((int) (position - dayStart));
+
+                if (bit >= 0) {
+                    return dayStart + bit;
+                }
+
+                position = dayStart + SLOTS_PER_DAY;
+            }
+
+            return limit;
+        }
+
+        private void apply(long from, long to, boolean value) {
+            if (from >= to) {
+                return;
+            }
+
+            for (long dayNumber = Math.floorDiv(from, SLOTS_PER_DAY);
+                 dayNumber * SLOTS_PER_DAY < to; dayNumber++) {
+                DayBits bits = value ? day(dayNumber) : days.get(dayNumber);
+
+                if (bits == null) {
+                    continue;
+                }
+
+                long dayStart = dayNumber * SLOTS_PER_DAY;
+                bits.set(bits.full,
+                        (int) Math.max(from - dayStart, 0),
+                        (int) Math.min(to - dayStart, SLOTS_PER_DAY),
+                        value);
+            }
+        }
+
+        private DayBits day(long dayNumber) {
+            return days.computeIfAbsent(dayNumber, key -> new DayBits());
+        }
+
+        /**
+         * Крайние слоты бронирования, покрытые им не целиком.
+         */
+        private static List<Long> edgeSlots(long first, long last, long fullFrom, long fullTo) {
+            List<Long> edges = new ArrayList<>(2);
+
+            if (first < fullFrom || first >= fullTo) {
+                edges.add(first);
+            }
+            if (last != first && (last < fullFrom || last >= fullTo)) {
+                edges.add(last);
+            }
+
+            return edges;
+        }
+    }
+}
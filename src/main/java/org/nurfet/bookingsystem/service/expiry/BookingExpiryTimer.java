@@ -0,0 +1,174 @@
+package org.nurfet.bookingsystem.service.expiry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingCleanupScheduler;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.service.lock.AdvisoryLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Точное истечение бронирований по колесу таймеров.
+ * <p>
+ * При старте в колесо загружаются сроки окончания всех активных бронирований,
+ * далее оно обновляется событиями создания, переноса и отмены. Раз в секунду
+ * колесо продвигается, и наступившие сроки помечаются EXPIRED небольшими
+ * пакетами по ID.
+ * <p>
+ * Колесо есть на каждом узле, но срабатывает только под той же advisory-блокировкой,
+ * что и проход BookingCleanupScheduler: истечение по-прежнему выполняет один узел.
+ * Если блокировку держит другой узел, наступившие сроки переносятся на следующий
+ * тик; условие end_time &lt; now в UPDATE делает повтор уже выполненного безопасным.
+ * <p>
+ * Выключено по умолчанию (booking.expiry.timer-enabled). Пропущенное колесом
+ * (рестарт, изменения в обход сервиса) подбирает проход BookingCleanupScheduler.
+ */
+@Component
+@Slf4j
+public class BookingExpiryTimer {
+
+    static final Duration TICK = Duration.ofSeconds(1);
+    static final int FIRE_BATCH_SIZE = 100;
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvisoryLock advisoryLock;
+    private final boolean enabled;
+
+    private TimerWheel wheel;
+
+    public BookingExpiryTimer(BookingRepository bookingRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              AdvisoryLock advisoryLock,
+                              BookingProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.advisoryLock = advisoryLock;
+        this.enabled = properties.expiry().timerEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        TimerWheel loaded = new TimerWheel(TICK, now);
+
+        for (BookingSlot slot : bookingRepository.findActiveSlots(now)) {
+            loaded.schedule(slot.id(), slot.endTime());
+        }
+
+        synchronized (this) {
+            this.wheel = loaded;
+        }
+
+        log.info("Expiry timer wheel loaded with {} active bookings", loaded.size());
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.SECONDS)
+    public void tick() {
+        List<Long> due;
+
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            due = wheel.advance(Instant.now());
+        }
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        boolean executed;
+
+        try {
+            executed = advisoryLock.runExclusively(BookingCleanupScheduler.EXPIRY_LOCK_KEY, () -> fire(due));
+        } catch (RuntimeException e) {
+            log.error("Expiry timer failed to take the expiry lock: {}", e.getMessage());
+            executed = false;
+        }
+
+        if (!executed) {
+            reschedule(due);
+        }
+    }
+
+    private void fire(List<Long> due) {
+        int expired = 0;
+
+        for (int from = 0; from < due.size(); from += FIRE_BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(from + FIRE_BATCH_SIZE, due.size()));
+            expired += expire(batch);
+        }
+
+        log.debug("Expiry timer fired {} timers, {} bookings expired", due.size(), expired);
+    }
+
+    /**
+     * Возвращает сработавшие сроки в колесо на следующий тик. Лишнее срабатывание
+     * ничего не изменит: UPDATE проверяет статус и end_time, а срок, перенесённый
+     * за это время, подберёт проход BookingCleanupScheduler.
+     */
+    private synchronized void reschedule(List<Long> due) {
+        Instant now = Instant.now();
+        due.forEach(id -> wheel.schedule(id, now));
+    }
+
+    private int expire(List<Long> ids) {
+        Instant now = Instant.now();
+
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                int updated = bookingRepository.markExpiredByIds(ids, now);
+
+                if (updated > 0) {
+                    eventPublisher.publishEvent(new BookingsExpiredEvent(now));
+                }
+
+                return updated;
+            });
+
+            return count != null ? count : 0;
+        } catch (RuntimeException e) {
+            // Оставшиеся бронирования подберёт страхующий проход
+            log.error("Failed to expire {} bookings: {}", ids.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        if (wheel == null) {
+            return;
+        }
+
+        BookingSlot current = event.current();
+
+        if (current != null && current.isActive()) {
+            wheel.schedule(current.id(), current.endTime());
+        } else if (event.previous() != null) {
+            wheel.cancel(event.previous().id());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.nurfet.bookingsystem.service.expiry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Иерархическое колесо таймеров: 4 уровня по 64 слота.
+ * <p>
+ * Слот уровня l покрывает 64^l тиков, поэтому при тике в 1 секунду колесо
+ * охватывает около 194 суток; более дальние сроки ждут в overflow.
+ * Постановка и отмена — O(1), продвижение на один тик — O(1) плюс
+ * перенос (cascade) слота старшего уровня на границе его интервала.
+ * <p>
+ * Отмена ленивая: актуальный срок каждого ID хранится в deadlines,
+ * устаревшие записи отбрасываются при срабатывании.
+ * Класс не потокобезопасен.
+ */
+public final class TimerWheel {
+
+    private static final int LEVELS = 4;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry> overflow = new ArrayList<>();
+    private final List<Entry> ready = new ArrayList<>();
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    private long currentTick;
+
+    public TimerWheel(Duration tick, Instant start) {
+        this.tickMillis = tick.toMillis();
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Ставит (или переставляет) таймер id: он сработает на первом тике строго после deadline.
+     */
+    public void schedule(long id, Instant deadline) {
+        long deadlineTick = Math.floorDiv(deadline.toEpochMilli(), tickMillis) + 1;
+
+        deadlines.put(id, deadlineTick);
+        place(new Entry(id, deadlineTick));
+    }
+
+    public void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Продвигает колесо до момента now.
+     *
+     * @return ID таймеров, срок которых наступил, в порядке срабатывания
+     */
+    public List<Long> advance(Instant now) {
+        long targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        List<Long> due = new ArrayList<>();
+
+        drain(ready, due);
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                List<Entry> far = new ArrayList<>(overflow);
+                overflow.clear();
+                far.forEach(this::place);
+            }
+
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    List<Entry> bucket = slot(level, currentTick);
+                    List<Entry> moved = new ArrayList<>(bucket);
+                    bucket.clear();
+                    moved.forEach(this::place);
+                }
+            }
+
+            drain(slot(0, currentTick), due);
+            drain(ready, due);
+        }
+
+        return due;
+    }
+
+    private void place(Entry entry) {
+        if (entry.deadlineTick() <= currentTick) {
+            ready.add(entry);
+            return;
+        }
+
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+
+            // Срок и текущий тик в одном блоке уровня level + 1:
+            // слот уровня level ещё впереди и будет пройден в этом обороте
+            if ((entry.deadlineTick() >>> shift) == (currentTick >>> shift)) {
+                slot(level, entry.deadlineTick()).add(entry);
+                return;
+            }
+        }
+
+        overflow.add(entry);
+    }
+
+    private List<Entry> slot(int level, long tick) {
+        int index = (int) ((tick >>> (BITS * level)) & MASK);
+        return slots.get(level * SLOTS + index);
+    }
+
+    private void drain(List<Entry> bucket, List<Long> due) {
+        for (Entry entry : bucket) {
+            Long deadlineTick = deadlines.get(entry.id());
+
+            if (deadlineTick != null && deadlineTick == entry.deadlineTick()) {
+                deadlines.remove(entry.id());
+                due.add(entry.id());
+            }
+        }
+        bucket.clear();
+    }
+
+    private record Entry(long id, long deadlineTick) {
+    }
+}
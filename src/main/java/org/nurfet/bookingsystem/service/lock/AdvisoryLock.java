@@ -0,0 +1,60 @@
+package org.nurfet.bookingsystem.service.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Координация задач между экземплярами приложения через сессионные
+ * advisory-блокировки PostgreSQL.
+ * <p>
+ * Блокировка берётся на отдельном соединении, которое удерживается на всё время
+ * задачи: транзакции внутри задачи могут идти через любые соединения пула.
+ * Если узел падает, соединение закрывается, и PostgreSQL снимает блокировку сам,
+ * так что следующий запуск подхватит другой узел.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisoryLock {
+
+    private final DataSource dataSource;
+
+    /**
+     * Выполняет task, если удалось взять блокировку key; иначе сразу возвращает false.
+     */
+    public boolean runExclusively(long key, Runnable task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, "select pg_try_advisory_lock(?)", key)) {
+                log.debug("Advisory lock {} is held by another node, skipping", key);
+                return false;
+            }
+
+            try {
+                task.run();
+                return true;
+            } finally {
+                call(connection, "select pg_advisory_unlock(?)", key);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Advisory lock " + key + " failed", e);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.nurfet.bookingsystem.service.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.core.retry.Retryable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Изменения под оптимистической блокировкой (@Version) с ограниченным числом повторов.
+ * <p>
+ * Каждая попытка идёт в отдельной транзакции: после отката сущности читаются
+ * заново, и изменение применяется к актуальному состоянию. Между попытками —
+ * растущая пауза с разбросом (booking.retry). Если все попытки проиграли,
+ * наружу уходит последнее OptimisticLockingFailureException.
+ * <p>
+ * Вызывать вне транзакции: внутри чужой транзакции попытки присоединились бы к ней
+ * и повтор после отката был бы невозможен.
+ */
+@Component
+@Slf4j
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final RetryTemplate retryTemplate;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager, BookingProperties properties) {
+        BookingProperties.Retry retry = properties.retry();
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryTemplate = new RetryTemplate(RetryPolicy.builder()
+                .includes(OptimisticLockingFailureException.class)
+                .maxRetries(retry.maxRetries())
+                .delay(retry.delay())
+                .multiplier(retry.multiplier())
+                .maxDelay(retry.maxDelay())
+                .jitter(retry.jitter())
+                .build());
+        this.retryTemplate.setRetryListener(new RetryListener() {
+            @Override
+            public void onRetryFailure(RetryPolicy policy, Retryable<?> retryable, Throwable throwable) {
+                log.debug("Optimistic lock retry failed: {}", throwable.getMessage());
+            }
+        });
+    }
+
+    public <T> T inTransaction(Supplier<T> action) {
+        return retryTemplate.invoke(() -> transactionTemplate.execute(status -> action.get()));
+    }
+}
@@ -0,0 +1,89 @@
+package org.nurfet.bookingsystem.service.pagination;
+
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.CursorPage;
+import org.nurfet.bookingsystem.exception.InvalidCursorException;
+import org.nurfet.bookingsystem.repository.BookingKeyset;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keyset-курсор по (start_time, id) для списков бронирований.
+ * <p>
+ * Клиент получает непрозрачную строку (base64url от "startTime|id")
+ * и передаёт её обратно без изменений; стоимость запроса следующей
+ * страницы не зависит от глубины прокрутки.
+ */
+public final class BookingCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private static final Comparator<BookingResponse> KEYSET_ORDER =
+            Comparator.comparing(BookingResponse::startTime).thenComparing(BookingResponse::id);
+
+    private BookingCursor() {
+    }
+
+    /**
+     * @return позиция после последнего элемента предыдущей страницы или null для первой
+     */
+    public static BookingKeyset decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            Instant startTime = Instant.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+
+            return new BookingKeyset(startTime, id);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+
+    public static String encode(BookingResponse booking) {
+        String raw = booking.startTime() + SEPARATOR + booking.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Страница из rows, запрошенных с лимитом size + 1: лишняя строка
+     * лишь сообщает, что следующая страница существует.
+     */
+    public static CursorPage<BookingResponse> toPage(List<BookingResponse> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<BookingResponse> items = rows.subList(0, size);
+        return new CursorPage<>(List.copyOf(items), encode(items.getLast()));
+    }
+
+    /**
+     * Страница из двух источников (рабочая таблица и архив), каждый из которых
+     * запрошен с лимитом size + 1 в порядке (start_time, id).
+     */
+    public static CursorPage<BookingResponse> toPage(List<BookingResponse> rows,
+                                                     List<BookingResponse> archivedRows,
+                                                     int size) {
+        if (archivedRows.isEmpty()) {
+            return toPage(rows, size);
+        }
+
+        List<BookingResponse> merged = new ArrayList<>(rows.size() + archivedRows.size());
+        merged.addAll(rows);
+        merged.addAll(archivedRows);
+        merged.sort(KEYSET_ORDER);
+
+        return toPage(merged, size);
+    }
+}
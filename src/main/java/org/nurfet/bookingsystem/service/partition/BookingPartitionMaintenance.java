@@ -0,0 +1,123 @@
+package org.nurfet.bookingsystem.service.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Обслуживание помесячных партиций таблицы bookings (V6).
+ * <p>
+ * Создаёт партиции на booking.partitioning.months-ahead месяцев вперёд
+ * и, если задан booking.partitioning.retention-months, отключает и удаляет
+ * партиции старше этого срока. Сама работа с DDL выполняется функциями
+ * create_booking_partition / drop_booking_partition из миграции, так что
+ * их же можно вызвать вручную. Удаляется только пустая партиция:
+ * завершённые бронирования сначала переносит в архив BookingArchiver (V15).
+ */
+@Service
+@Slf4j
+public class BookingPartitionMaintenance {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingProperties.Partitioning settings;
+
+    public BookingPartitionMaintenance(JdbcTemplate jdbcTemplate, BookingProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = properties.partitioning();
+    }
+
+    public void maintain() {
+        maintain(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * @param current текущий месяц (UTC)
+     */
+    public void maintain(YearMonth current) {
+        int created = createPartitions(current, current.plusMonths(settings.monthsAhead()));
+
+        if (created > 0) {
+            log.info("Created {} booking partitions up to {}", created, current.plusMonths(settings.monthsAhead()));
+        }
+
+        if (settings.retentionMonths() > 0) {
+            int dropped = dropPartitionsBefore(current.minusMonths(settings.retentionMonths()));
+
+            if (dropped > 0) {
+                log.info("Dropped {} booking partitions before {}", dropped,
+                        current.minusMonths(settings.retentionMonths()));
+            }
+        }
+    }
+
+    /**
+     * Создаёт недостающие партиции месяцев [from, to].
+     *
+     * @return число созданных партиций
+     */
+    public int createPartitions(YearMonth from, YearMonth to) {
+        int created = 0;
+
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            Boolean result = jdbcTemplate.queryForObject(
+                    "select create_booking_partition(?)", Boolean.class, month.atDay(1));
+
+            if (Boolean.TRUE.equals(result)) {
+                created++;
+            }
+        }
+
+        return created;
+    }
+
+    /**
+     * Отключает и удаляет партиции месяцев раньше {@code before}.
+     *
+     * @return число удалённых партиций
+     */
+    public int dropPartitionsBefore(YearMonth before) {
+        int dropped = 0;
+
+        for (YearMonth month : listPartitions()) {
+            if (!month.isBefore(before)) {
+                continue;
+            }
+
+            Boolean result = jdbcTemplate.queryForObject(
+                    "select drop_booking_partition(?)", Boolean.class, month.atDay(1));
+
+            if (Boolean.TRUE.equals(result)) {
+                dropped++;
+            } else {
+                log.warn("Booking partition for {} still has bookings, skipped", month);
+            }
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Месяцы, для которых существуют партиции, по возрастанию (без bookings_default).
+     */
+    public List<YearMonth> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                        select c.relname
+                        from pg_inherits i
+                        join pg_class c on c.oid = i.inhrelid
+                        where i.inhparent = 'bookings'::regclass
+                        and c.relname ~ '^bookings_y[0-9]{4}m[0-9]{2}$'
+                        order by c.relname
+                        """, String.class)
+                .stream()
+                .map(name -> YearMonth.parse(name.substring("bookings_".length()), PARTITION_SUFFIX))
+                .toList();
+    }
+}
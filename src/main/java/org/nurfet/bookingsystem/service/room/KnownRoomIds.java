@@ -0,0 +1,59 @@
+package org.nurfet.bookingsystem.service.room;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ID комнат, существование которых недавно подтверждено БД.
+ * <p>
+ * Заменяет roomRepository.existsById перед запросами по комнате: ID, подтверждённый
+ * не раньше booking.room-directory.known-ids-ttl назад, проверяется в памяти,
+ * остальные — в БД, после чего подтверждение обновляется. Комнаты удаляются
+ * в обход сервиса (в БД напрямую, на другом узле), поэтому вместо уведомлений
+ * об удалении подтверждение просто устаревает: удалённая комната перестаёт
+ * считаться существующей не позже чем через TTL.
+ */
+@Component
+@Slf4j
+public class KnownRoomIds {
+
+    private final Map<Long, Instant> confirmedAt = new ConcurrentHashMap<>();
+    private final RoomRepository roomRepository;
+    private final Duration ttl;
+
+    public KnownRoomIds(@Lazy RoomRepository roomRepository, BookingProperties properties) {
+        this.roomRepository = roomRepository;
+        this.ttl = properties.roomDirectory().knownIdsTtl();
+    }
+
+    public boolean exists(Long roomId) {
+        Instant now = Instant.now();
+        Instant confirmed = confirmedAt.get(roomId);
+
+        if (confirmed != null && confirmed.plus(ttl).isAfter(now)) {
+            return true;
+        }
+
+        if (!roomRepository.existsById(roomId)) {
+            forget(roomId);
+            return false;
+        }
+
+        confirmedAt.put(roomId, now);
+        return true;
+    }
+
+    public void forget(Long roomId) {
+        if (confirmedAt.remove(roomId) != null) {
+            log.debug("Room {} removed from known room ids", roomId);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.nurfet.bookingsystem.service.room;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.event.RoomChangedEvent;
+import org.nurfet.bookingsystem.mapper.room.RoomMapper;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory справочник комнат для поиска по {@link RoomFilter} без обращения к БД.
+ * <p>
+ * Поиск идёт по неизменяемому снимку ({@link RoomDirectorySnapshot}): вместимость —
+ * бинарным поиском по отсортированному массиву, активность — битовой маской,
+ * подстроки названия и описания — по индексу триграмм с последующей проверкой.
+ * Снимок пересобирается после коммита каждой записи комнаты ({@link RoomChangedEvent})
+ * и периодически из БД, чтобы подхватить изменения с других узлов.
+ */
+@Component
+@Slf4j
+public class RoomDirectory {
+
+    private static final Map<String, Function<RoomResponse, ? extends Comparable<?>>> SORT_KEYS = Map.of(
+            "id", RoomResponse::id,
+            "name", RoomResponse::name,
+            "capacity", RoomResponse::capacity,
+            "description", RoomResponse::description,
+            "active", RoomResponse::active,
+            "createdAt", RoomResponse::createdAt,
+            "updatedAt", RoomResponse::updatedAt
+    );
+
+    private static final Set<String> TEXT_KEYS = Set.of("name", "description");
+
+    private final RoomRepository roomRepository;
+    private final RoomMapper roomMapper;
+    private final boolean enabled;
+
+    private final Map<Long, RoomResponse> rooms = new HashMap<>();
+    private volatile RoomDirectorySnapshot snapshot = RoomDirectorySnapshot.of(List.of());
+    private volatile boolean ready;
+
+    public RoomDirectory(@Lazy RoomRepository roomRepository,
+                         RoomMapper roomMapper,
+                         BookingProperties properties) {
+        this.roomRepository = roomRepository;
+        this.roomMapper = roomMapper;
+        this.enabled = properties.roomDirectory().enabled();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.room-directory.refresh-interval:10m}",
+               initialDelayString = "${booking.room-directory.refresh-interval:10m}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        rooms.clear();
+        roomRepository.findAll().forEach(room -> rooms.put(room.getId(), roomMapper.toResponse(room)));
+
+        publish();
+        this.ready = true;
+
+        log.info("Room directory rebuilt: {} rooms", rooms.size());
+    }
+
+    public synchronized void put(RoomResponse room) {
+        if (!enabled) {
+            return;
+        }
+
+        rooms.put(room.id(), room);
+        publish();
+    }
+
+    public synchronized void remove(Long roomId) {
+        if (!enabled) {
+            return;
+        }
+
+        if (rooms.remove(roomId) != null) {
+            publish();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.current() != null) {
+            put(event.current());
+        } else {
+            remove(event.roomId());
+        }
+    }
+
+    private void publish() {
+        this.snapshot = RoomDirectorySnapshot.of(rooms.values());
+    }
+
+    /**
+     * Справочник умеет сортировать только по полям RoomResponse.
+     */
+    public boolean supports(Sort sort) {
+        return sort.stream().allMatch(order -> SORT_KEYS.containsKey(order.getProperty()));
+    }
+
+    public Page<RoomResponse> search(RoomFilter filter, Pageable pageable) {
+        List<RoomResponse> matches = new ArrayList<>(snapshot.match(filter));
+        matches.sort(comparator(pageable.getSort()));
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+
+        return new PageImpl<>(List.copyOf(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<RoomResponse> comparator(Sort sort) {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        Comparator<RoomResponse> result = (a, b) -> 0;
+
+        for (Sort.Order order : sort) {
+            Function<RoomResponse, Comparable> key = (Function) SORT_KEYS.get(order.getProperty());
+            Comparator<Comparable> values = TEXT_KEYS.contains(order.getProperty())
+                    ? (Comparator) collator
+                    : Comparator.naturalOrder();
+
+            Comparator<RoomResponse> next = Comparator.comparing(key, Comparator.nullsLast(values));
+            result = result.thenComparing(order.isAscending() ? next : next.reversed());
+        }
+
+        // Детерминированный порядок для равных ключей
+        return result.thenComparing(RoomResponse::id);
+    }
+}
@@ -0,0 +1,169 @@
+package org.nurfet.bookingsystem.service.room;
+
+import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок справочника комнат с индексами под {@link RoomFilter}.
+ * Комнаты нумеруются позициями в массиве {@code rooms}; все индексы хранят эти позиции.
+ */
+final class RoomDirectorySnapshot {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final RoomResponse[] rooms;
+
+    /** Вместимости по возрастанию и позиции соответствующих комнат. */
+    private final int[] capacities;
+    private final int[] byCapacity;
+
+    private final BitSet active;
+
+    private final String[] names;
+    private final String[] descriptions;
+    private final Map<String, BitSet> nameGrams;
+    private final Map<String, BitSet> descriptionGrams;
+
+    private RoomDirectorySnapshot(RoomResponse[] rooms) {
+        int size = rooms.length;
+        this.rooms = rooms;
+
+        Integer[] order = new Integer[size];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt(i -> rooms[i].capacity()));
+
+        this.byCapacity = new int[size];
+        this.capacities = new int[size];
+        for (int i = 0; i < size; i++) {
+            byCapacity[i] = order[i];
+            capacities[i] = rooms[order[i]].capacity();
+        }
+
+        this.active = new BitSet(size);
+        this.names = new String[size];
+        this.descriptions = new String[size];
+        this.nameGrams = new HashMap<>();
+        this.descriptionGrams = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            if (Boolean.TRUE.equals(rooms[i].active())) {
+                active.set(i);
+            }
+
+            names[i] = normalize(rooms[i].name());
+            descriptions[i] = normalize(rooms[i].description());
+            addGrams(nameGrams, names[i], i);
+            addGrams(descriptionGrams, descriptions[i], i);
+        }
+    }
+
+    static RoomDirectorySnapshot of(Collection<RoomResponse> rooms) {
+        return new RoomDirectorySnapshot(rooms.toArray(RoomResponse[]::new));
+    }
+
+    int size() {
+        return rooms.length;
+    }
+
+    /**
+     * Комнаты, удовлетворяющие фильтру, в порядке позиций. Семантика совпадает
+     * с RoomSpecification.fromFilter: подстрока без учёта регистра,
+     * вместимость не меньше заданной, пустые условия не ограничивают.
+     */
+    List<RoomResponse> match(RoomFilter filter) {
+        BitSet result = new BitSet(rooms.length);
+        result.set(0, rooms.length);
+
+        if (filter.capacity() != null) {
+            BitSet fits = new BitSet(rooms.length);
+            for (int i = lowerBound(filter.capacity()); i < byCapacity.length; i++) {
+                fits.set(byCapacity[i]);
+            }
+            result.and(fits);
+        }
+
+        if (filter.active() != null) {
+            if (filter.active()) {
+                result.and(active);
+            } else {
+                result.andNot(active);
+            }
+        }
+
+        if (filter.name() != null && !filter.name().isBlank()) {
+            matchText(result, normalize(filter.name()), nameGrams, names);
+        }
+
+        if (filter.description() != null && !filter.description().isBlank()) {
+            matchText(result, normalize(filter.description()), descriptionGrams, descriptions);
+        }
+
+        List<RoomResponse> matches = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            matches.add(rooms[i]);
+        }
+
+        return matches;
+    }
+
+    /**
+     * Кандидаты — комнаты, содержащие все триграммы запроса; каждый кандидат
+     * затем проверяется на вхождение подстроки целиком. Запросы короче
+     * триграммы проверяются напрямую.
+     */
+    private static void matchText(BitSet result, String query, Map<String, BitSet> grams, String[] texts) {
+        for (int from = 0; from + GRAM_LENGTH <= query.length() && !result.isEmpty(); from++) {
+            BitSet docs = grams.get(query.substring(from, from + GRAM_LENGTH));
+
+            if (docs == null) {
+                result.clear();
+                return;
+            }
+
+            result.and(docs);
+        }
+
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            if (!texts[i].contains(query)) {
+                result.clear(i);
+            }
+        }
+    }
+
+    private static void addGrams(Map<String, BitSet> grams, String text, int position) {
+        for (int from = 0; from + GRAM_LENGTH <= text.length(); from++) {
+            grams.computeIfAbsent(text.substring(from, from + GRAM_LENGTH), gram -> new BitSet())
+                    .set(position);
+        }
+    }
+
+    private int lowerBound(int capacity) {
+        int low = 0;
+        int high = capacities.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (capacities[mid] < capacity) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,60 @@
+package org.nurfet.bookingsystem.service.series;
+
+import org.nurfet.bookingsystem.entity.RecurrenceFrequency;
+import org.nurfet.bookingsystem.exception.InvalidRecurrenceException;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Развёртка правила повторения в начала вхождений.
+ * <p>
+ * Шаг считается по календарю часового пояса серии: вхождения остаются в то же
+ * местное время и после перехода на летнее время и обратно. Каждое вхождение
+ * отсчитывается от первого, поэтому сдвиг из несуществующего часа не накапливается.
+ * Первое вхождение входит в серию; until ограничивает начало вхождения включительно,
+ * count — общее число вхождений. Если заданы оба, серия заканчивается по первому из них.
+ */
+public final class RecurrenceExpander {
+
+    public static final int MAX_OCCURRENCES = 366;
+
+    private RecurrenceExpander() {
+    }
+
+    public static List<Instant> expand(Instant first,
+                                       ZoneId zone,
+                                       RecurrenceFrequency frequency,
+                                       int interval,
+                                       Instant until,
+                                       Integer count) {
+        if (until == null && count == null) {
+            throw new InvalidRecurrenceException("Серия должна быть ограничена датой окончания или числом повторений");
+        }
+
+        if (until != null && until.isBefore(first)) {
+            throw new InvalidRecurrenceException("Дата окончания серии раньше первого вхождения");
+        }
+
+        ZonedDateTime local = first.atZone(zone);
+        int limit = count == null ? Integer.MAX_VALUE : count;
+        List<Instant> starts = new ArrayList<>();
+
+        for (Instant start = first;
+             starts.size() < limit && (until == null || !start.isAfter(until));
+             start = local.plus((long) starts.size() * interval, frequency.getUnit()).toInstant()) {
+
+            if (starts.size() == MAX_OCCURRENCES) {
+                throw new InvalidRecurrenceException(
+                        "Серия не может содержать больше %d вхождений".formatted(MAX_OCCURRENCES));
+            }
+
+            starts.add(start);
+        }
+
+        return starts;
+    }
+}
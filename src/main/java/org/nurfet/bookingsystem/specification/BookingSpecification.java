@@ -0,0 +1,34 @@
+package org.nurfet.bookingsystem.specification;
+
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+public class BookingSpecification {
+
+    public static Specification<Booking> organizerEquals(String email) {
+        return (root, query, cb) -> cb.equal(root.get("organizerEmail"), email);
+    }
+
+    public static Specification<Booking> statusEquals(BookingStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> roomEquals(Long roomId) {
+        return (root, query, cb) -> cb.equal(root.get("room").get("id"), roomId);
+    }
+
+    /**
+     * Бронирования, пересекающиеся с [from, to). Избыточное условие
+     * start_time > from - MAX_DURATION ограничивает диапазон по индексу
+     * (room_id, start_time, id) с обеих сторон.
+     */
+    public static Specification<Booking> overlaps(Instant from, Instant to) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThan(root.get("startTime"), to),
+                cb.greaterThan(root.get("endTime"), from),
+                cb.greaterThan(root.get("startTime"), from.minus(Booking.MAX_DURATION)));
+    }
+}
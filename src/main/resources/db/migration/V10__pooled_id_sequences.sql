@@ -0,0 +1,7 @@
+-- Hibernate берёт id блоками по 50 (pooled optimizer, allocationSize = 50):
+-- одно обращение к последовательности на 50 вставок, и вставки можно пакетировать.
+-- Колонки и их default nextval(...) остаются: уже выданные id не меняются,
+-- вставки мимо Hibernate по-прежнему получают id из той же последовательности
+alter sequence rooms_id_seq increment by 50;
+
+alter sequence bookings_id_seq increment by 50;
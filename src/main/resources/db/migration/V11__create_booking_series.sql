@@ -0,0 +1,31 @@
+-- Повторяющиеся встречи: правило повторения и данные, общие для всех вхождений.
+-- Сами вхождения — обычные строки bookings со ссылкой series_id
+create table booking_series (
+    id bigserial primary key,
+    room_id bigint not null references rooms(id),
+    title varchar(200) not null,
+    organizer_email varchar(254) not null,
+    start_time timestamp with time zone not null,
+    end_time timestamp with time zone not null,
+    frequency varchar(10) not null check ( frequency in ('DAILY', 'WEEKLY') ),
+    repeat_interval integer not null check ( repeat_interval > 0 ),
+    until_time timestamp with time zone,
+    occurrence_count integer check ( occurrence_count > 0 ),
+    created_at timestamp with time zone not null default now(),
+    updated_at timestamp with time zone not null default now(),
+    version bigint not null default 0,
+
+    constraint chk_series_time_order check ( end_time > start_time ),
+
+    constraint chk_series_bounded check ( until_time is not null or occurrence_count is not null )
+);
+
+comment on table booking_series is 'Recurring booking rules; occurrences live in bookings';
+
+-- Шаг как у остальных последовательностей (pooled optimizer, см. V10)
+alter sequence booking_series_id_seq increment by 50;
+
+alter table bookings add column series_id bigint references booking_series(id);
+
+create index idx_bookings_series on bookings(series_id, start_time)
+where series_id is not null;
@@ -0,0 +1,3 @@
+-- Часовой пояс серии: вхождения повторяются в одно и то же местное время,
+-- в том числе через переход на летнее время. Существующие серии развёрнуты в UTC
+alter table booking_series add column time_zone varchar(64) not null default 'UTC';
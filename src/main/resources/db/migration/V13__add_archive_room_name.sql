@@ -0,0 +1,12 @@
+-- Архив не ссылается на rooms (см. V7), поэтому название комнаты сохраняется
+-- вместе со строкой: чтение архива не зависит от того, существует ли комната.
+-- У строк, чья комната уже удалена, название остаётся пустым
+alter table bookings_archive add column room_name varchar(100);
+
+update bookings_archive a
+set room_name = r.name
+from rooms r
+where r.id = a.room_id;
+
+-- Выборка по комнате и интервалу в том же keyset-порядке, что и из bookings
+create index idx_bookings_archive_room_start on bookings_archive(room_id, start_time, id);
@@ -0,0 +1,38 @@
+-- Ключ advisory-блокировки из V6 приводил room_id к int и ломал вставку
+-- для комнат с id больше 2^31 - 1. Теперь ключ — 64-битный хэш строки,
+-- так что блокировку комнаты не нужно согласовывать с другими пространствами ключей
+create or replace function check_booking_cross_partition_overlap() returns trigger
+language plpgsql as $$
+declare
+    v_month_start timestamptz := date_trunc('month', new.start_time, 'UTC');
+begin
+    if new.status not in('PENDING', 'CONFIRMED') then
+        return new;
+    end if;
+
+    if new.start_time >= v_month_start + interval '8 hours'
+        and new.end_time <= v_month_start + interval '1 month' then
+        return new;
+    end if;
+
+    perform pg_advisory_xact_lock(hashtextextended('bookings:' || new.room_id, 0));
+
+    if exists (
+        select 1
+        from bookings b
+        where b.room_id = new.room_id
+        and b.id <> new.id
+        and b.status in('PENDING', 'CONFIRMED')
+        and b.start_time < new.end_time
+        and b.start_time > new.start_time - interval '8 hours'
+        and b.end_time > new.start_time
+    ) then
+        raise exception 'conflicting key value violates exclusion constraint "excl_booking_overlap"'
+            using errcode = 'exclusion_violation',
+                  constraint = 'excl_booking_overlap',
+                  table = 'bookings';
+    end if;
+
+    return new;
+end;
+$$;
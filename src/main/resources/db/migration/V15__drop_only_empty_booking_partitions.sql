@@ -0,0 +1,28 @@
+-- drop_booking_partition из V6 удалял партицию без активных бронирований,
+-- вместе с ещё не перенесёнными в bookings_archive EXPIRED/CANCELLED.
+-- Теперь удаляется только пустая партиция: завершённые бронирования
+-- сначала должен перенести архиватор (booking.archive)
+create or replace function drop_booking_partition(p_month date) returns boolean
+language plpgsql as $$
+declare
+    v_name text := 'bookings_' || to_char(p_month, '"y"YYYY"m"MM');
+    v_has_rows boolean;
+begin
+    if to_regclass(v_name) is null then
+        return false;
+    end if;
+
+    execute format('select exists (select 1 from %I)', v_name)
+        into v_has_rows;
+
+    if v_has_rows then
+        raise warning 'Partition % still has bookings, skipped', v_name;
+        return false;
+    end if;
+
+    execute format('alter table bookings detach partition %I', v_name);
+    execute format('drop table %I', v_name);
+
+    return true;
+end;
+$$;
@@ -0,0 +1,8 @@
+-- Keyset-пагинация списков бронирований по (start_time, id)
+create index idx_bookings_organizer_start on bookings(organizer_email, start_time, id);
+create index idx_bookings_status_start on bookings(status, start_time, id);
+create index idx_bookings_room_start on bookings(room_id, start_time, id);
+
+-- Покрываются префиксами новых индексов
+drop index idx_bookings_status;
+drop index idx_bookings_organizer;
@@ -0,0 +1,3 @@
+-- Выборка истекших бронирований пакетами по end_time
+create index idx_bookings_active_end on bookings(end_time)
+where status in('PENDING', 'CONFIRMED');
@@ -0,0 +1,193 @@
+-- Помесячное декларативное партиционирование bookings по start_time.
+-- Границы партиций — начала месяцев в UTC, партиция bookings_default
+-- принимает строки, для которых месячная партиция ещё не создана.
+
+alter table bookings rename to bookings_legacy;
+alter table bookings_legacy rename constraint bookings_pkey to bookings_legacy_pkey;
+alter table bookings_legacy drop constraint excl_booking_overlap;
+alter sequence bookings_id_seq owned by none;
+
+drop index idx_room_time;
+drop index idx_bookings_organizer_start;
+drop index idx_bookings_status_start;
+drop index idx_bookings_room_start;
+drop index idx_bookings_active_end;
+
+create table bookings (
+    id bigint not null default nextval('bookings_id_seq'),
+    room_id bigint not null references rooms(id),
+    title varchar(200) not null,
+    organizer_email varchar(254) not null,
+    start_time timestamp with time zone not null,
+    end_time timestamp with time zone not null,
+    status varchar(20) not null default 'PENDING'
+                      check ( status in ('PENDING', 'CONFIRMED', 'CANCELLED', 'EXPIRED') ),
+    created_at timestamp with time zone not null default now(),
+    updated_at timestamp with time zone not null default now(),
+
+    -- Ключ партиционирования обязан входить в первичный ключ
+    constraint bookings_pkey primary key (id, start_time),
+
+    constraint chk_booking_time_order check ( end_time > start_time ),
+
+    constraint chk_booking_min_duration check (
+        end_time - start_time >= interval '15 minutes'
+        ),
+
+    constraint chk_booking_max_duration check (
+        end_time - start_time <= interval '8 hours'
+        )
+) partition by range (start_time);
+
+comment on table bookings is 'Room reservations with time intervals, partitioned by month of start_time';
+
+alter sequence bookings_id_seq owned by bookings.id;
+
+-- Индексы на родительской таблице наследуются всеми партициями
+create index idx_room_time on bookings(room_id, start_time, end_time)
+where status in('PENDING', 'CONFIRMED');
+
+create index idx_bookings_organizer_start on bookings(organizer_email, start_time, id);
+create index idx_bookings_status_start on bookings(status, start_time, id);
+create index idx_bookings_room_start on bookings(room_id, start_time, id);
+
+create index idx_bookings_active_end on bookings(end_time)
+where status in('PENDING', 'CONFIRMED');
+
+-- Исключающее ограничение на партиционированной таблице должно включать
+-- ключ партиционирования, поэтому оно создаётся на каждой партиции отдельно.
+-- Имена сохраняют префикс excl_booking_overlap, по которому приложение
+-- распознаёт конфликт.
+create table bookings_default partition of bookings default;
+
+alter table bookings_default
+add constraint excl_booking_overlap_default
+exclude using gist(
+    room_id with =,
+    tstzrange(start_time, end_time) with &&
+    )
+where ( status in('PENDING', 'CONFIRMED') );
+
+-- Создаёт партицию месяца p_month, если её ещё нет, и переносит в неё
+-- строки этого месяца из bookings_default. Возвращает true, если партиция создана.
+create function create_booking_partition(p_month date) returns boolean
+language plpgsql as $$
+declare
+    v_from timestamptz := (date_trunc('month', p_month)::date)::timestamp at time zone 'UTC';
+    v_to   timestamptz := ((date_trunc('month', p_month) + interval '1 month')::date)::timestamp at time zone 'UTC';
+    v_name text := 'bookings_' || to_char(p_month, '"y"YYYY"m"MM');
+begin
+    if to_regclass(v_name) is not null then
+        return false;
+    end if;
+
+    execute format('create table %I (like bookings including defaults including constraints)', v_name);
+
+    execute format(
+        'alter table %I add constraint %I exclude using gist('
+            || 'room_id with =, tstzrange(start_time, end_time) with &&) '
+            || 'where ( status in(''PENDING'', ''CONFIRMED'') )',
+        v_name, 'excl_booking_overlap_' || to_char(p_month, '"y"YYYY"m"MM'));
+
+    -- Строки, попавшие в default до создания партиции, иначе помешают её подключению
+    execute format(
+        'with moved as (delete from bookings_default where start_time >= $1 and start_time < $2 returning *) '
+            || 'insert into %I select * from moved', v_name)
+        using v_from, v_to;
+
+    execute format('alter table bookings attach partition %I for values from (%L) to (%L)',
+                   v_name, v_from, v_to);
+
+    return true;
+end;
+$$;
+
+-- Отключает и удаляет партицию месяца p_month. Партиция с активными
+-- бронированиями не трогается. Возвращает true, если партиция удалена.
+create function drop_booking_partition(p_month date) returns boolean
+language plpgsql as $$
+declare
+    v_name text := 'bookings_' || to_char(p_month, '"y"YYYY"m"MM');
+    v_active boolean;
+begin
+    if to_regclass(v_name) is null then
+        return false;
+    end if;
+
+    execute format('select exists (select 1 from %I where status in(''PENDING'', ''CONFIRMED''))', v_name)
+        into v_active;
+
+    if v_active then
+        raise warning 'Partition % still has active bookings, skipped', v_name;
+        return false;
+    end if;
+
+    execute format('alter table bookings detach partition %I', v_name);
+    execute format('drop table %I', v_name);
+
+    return true;
+end;
+$$;
+
+-- Бронирование длится не более 8 часов, поэтому пересечься через границу
+-- партиций могут только строки, начинающиеся в первые 8 часов месяца,
+-- и строки, заканчивающиеся в следующем месяце. Для них пересечения ищутся
+-- по всей таблице под транзакционной advisory-блокировкой комнаты, чтобы
+-- две такие вставки не разминулись.
+create function check_booking_cross_partition_overlap() returns trigger
+language plpgsql as $$
+declare
+    v_month_start timestamptz := date_trunc('month', new.start_time, 'UTC');
+begin
+    if new.status not in('PENDING', 'CONFIRMED') then
+        return new;
+    end if;
+
+    if new.start_time >= v_month_start + interval '8 hours'
+        and new.end_time <= v_month_start + interval '1 month' then
+        return new;
+    end if;
+
+    perform pg_advisory_xact_lock(1651469419, new.room_id::int);
+
+    if exists (
+        select 1
+        from bookings b
+        where b.room_id = new.room_id
+        and b.id <> new.id
+        and b.status in('PENDING', 'CONFIRMED')
+        and b.start_time < new.end_time
+        and b.start_time > new.start_time - interval '8 hours'
+        and b.end_time > new.start_time
+    ) then
+        raise exception 'conflicting key value violates exclusion constraint "excl_booking_overlap"'
+            using errcode = 'exclusion_violation',
+                  constraint = 'excl_booking_overlap',
+                  table = 'bookings';
+    end if;
+
+    return new;
+end;
+$$;
+
+create trigger trg_booking_cross_partition_overlap
+before insert or update of room_id, start_time, end_time, status on bookings
+for each row execute function check_booking_cross_partition_overlap();
+
+-- Партиции с месяца самого раннего бронирования до года вперёд
+do $$
+declare
+    v_month date := date_trunc('month', least(
+        (select min(start_time) from bookings_legacy), now()) at time zone 'UTC')::date;
+begin
+    while v_month <= (date_trunc('month', now() at time zone 'UTC') + interval '12 months')::date loop
+        perform create_booking_partition(v_month);
+        v_month := (v_month + interval '1 month')::date;
+    end loop;
+end;
+$$;
+
+insert into bookings
+select * from bookings_legacy;
+
+drop table bookings_legacy;
@@ -0,0 +1,25 @@
+-- Холодный архив завершённых бронирований (EXPIRED, CANCELLED).
+-- Строки только добавляются и читаются, поэтому страницы заполняются целиком.
+-- Внешнего ключа на rooms нет: архив не должен мешать обслуживанию комнат.
+create table bookings_archive (
+    id bigint primary key,
+    room_id bigint not null,
+    title varchar(200) not null,
+    organizer_email varchar(254) not null,
+    start_time timestamp with time zone not null,
+    end_time timestamp with time zone not null,
+    status varchar(20) not null
+                      check ( status in ('CANCELLED', 'EXPIRED') ),
+    created_at timestamp with time zone not null,
+    updated_at timestamp with time zone not null,
+    archived_at timestamp with time zone not null default now()
+) with (fillfactor = 100);
+
+comment on table bookings_archive is 'Archived terminal bookings moved out of bookings';
+
+create index idx_bookings_archive_organizer_start on bookings_archive(organizer_email, start_time, id);
+create index idx_bookings_archive_status_start on bookings_archive(status, start_time, id);
+
+-- Выборка кандидатов на архивацию по (start_time) среди завершённых
+create index idx_bookings_terminal_start on bookings(start_time)
+where status in('CANCELLED', 'EXPIRED');
@@ -0,0 +1,7 @@
+create extension if not exists pg_trgm;
+
+-- Триграммные индексы под lower(...) like '%x%' из RoomSpecification
+-- и под поиск по сходству (<%, word_similarity)
+create index idx_rooms_name_trgm on rooms using gin (lower(name) gin_trgm_ops);
+
+create index idx_rooms_description_trgm on rooms using gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Версии для оптимистической блокировки (@Version в BaseEntity).
+-- default 0 без перезаписи таблиц; на партиционированной bookings колонка
+-- добавляется во все партиции
+alter table rooms add column version bigint not null default 0;
+
+alter table bookings add column version bigint not null default 0;
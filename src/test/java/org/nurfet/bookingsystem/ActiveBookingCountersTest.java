@@ -0,0 +1,123 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.service.availability.ActiveBookingCounters;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ActiveBookingCounters")
+class ActiveBookingCountersTest {
+
+    private ActiveBookingCounters counters;
+    private BookingRepository repository;
+    private Instant baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+        repository = mock(BookingRepository.class);
+        given(repository.findActiveSlots(any())).willReturn(List.of(
+                slot(1L, 1L, 9, 10, BookingStatus.PENDING),
+                slot(2L, 1L, 10, 12, BookingStatus.CONFIRMED),
+                slot(3L, 2L, 9, 17, BookingStatus.CONFIRMED)
+        ));
+
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("booking.counters.enabled", "true")))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        counters = new ActiveBookingCounters(repository, properties);
+        counters.rebuild();
+    }
+
+    private BookingSlot slot(Long id, Long roomId, int startHour, int endHour, BookingStatus status) {
+        return new BookingSlot(id, roomId, at(startHour), at(endHour), status);
+    }
+
+    private Instant at(int hour) {
+        return baseTime.plus(hour, ChronoUnit.HOURS);
+    }
+
+    @Test
+    @DisplayName("считает активные бронирования по комнатам после пересборки")
+    void countAfterRebuild() {
+        assertThat(counters.isReady()).isTrue();
+        assertThat(counters.count(1L, at(0))).isEqualTo(2);
+        assertThat(counters.count(2L, at(0))).isEqualTo(1);
+        assertThat(counters.count(3L, at(0))).isZero();
+    }
+
+    @Test
+    @DisplayName("учитывает создание, отмену и перенос в другую комнату")
+    void applyBookingChanges() {
+        counters.onBookingChanged(BookingChangedEvent.created(slot(4L, 2L, 18, 19, BookingStatus.PENDING)));
+        counters.onBookingChanged(new BookingChangedEvent(
+                slot(1L, 1L, 9, 10, BookingStatus.PENDING),
+                slot(1L, 1L, 9, 10, BookingStatus.CANCELLED)));
+        counters.onBookingChanged(new BookingChangedEvent(
+                slot(2L, 1L, 10, 12, BookingStatus.CONFIRMED),
+                slot(2L, 3L, 10, 12, BookingStatus.CONFIRMED)));
+
+        assertThat(counters.count(1L, at(0))).isZero();
+        assertThat(counters.count(2L, at(0))).isEqualTo(2);
+        assertThat(counters.count(3L, at(0))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("подтверждение не меняет счётчик")
+    void confirmKeepsCount() {
+        counters.onBookingChanged(new BookingChangedEvent(
+                slot(1L, 1L, 9, 10, BookingStatus.PENDING),
+                slot(1L, 1L, 9, 10, BookingStatus.CONFIRMED)));
+
+        assertThat(counters.count(1L, at(0))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("закончившиеся бронирования снимаются при чтении и при истечении")
+    void dropEndedBookings() {
+        assertThat(counters.count(1L, at(10))).isEqualTo(1);
+        assertThat(counters.count(1L, at(12))).isZero();
+
+        counters.onBookingsExpired(new BookingsExpiredEvent(at(18)));
+
+        assertThat(counters.count(2L, at(0))).isZero();
+    }
+
+    @Test
+    @DisplayName("отмена, пришедшая во время пересборки, не теряется")
+    void replayEventsDuringRebuild() {
+        BookingSlot pending = slot(1L, 1L, 9, 10, BookingStatus.PENDING);
+
+        // Чтение из БД ещё видит бронирование 1, а отмена коммитится до замены счётчиков
+        given(repository.findActiveSlots(any())).willAnswer(invocation -> {
+            counters.onBookingChanged(new BookingChangedEvent(pending,
+                    slot(1L, 1L, 9, 10, BookingStatus.CANCELLED)));
+            return List.of(pending, slot(3L, 2L, 9, 17, BookingStatus.CONFIRMED));
+        });
+
+        counters.rebuild();
+
+        assertThat(counters.count(1L, Instant.now())).isZero();
+        assertThat(counters.count(2L, Instant.now())).isEqualTo(1);
+    }
+}
@@ -0,0 +1,66 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.service.lock.AdvisoryLock;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdvisoryLock Integration Test")
+public class AdvisoryLockIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long KEY = 42L;
+
+    @Autowired
+    private AdvisoryLock advisoryLock;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Пропускает задачу, пока блокировку держит другой узел, и выполняет после её снятия")
+    void skipWhileLockHeldElsewhere() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        try (Connection otherNode = dataSource.getConnection();
+             Statement statement = otherNode.createStatement()) {
+            statement.execute("select pg_advisory_lock(" + KEY + ")");
+
+            assertThat(advisoryLock.runExclusively(KEY, runs::incrementAndGet)).isFalse();
+
+            statement.execute("select pg_advisory_unlock(" + KEY + ")");
+        }
+
+        assertThat(advisoryLock.runExclusively(KEY, runs::incrementAndGet)).isTrue();
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Снимает блокировку даже если задача упала")
+    void releaseLockOnFailure() throws Exception {
+        try {
+            advisoryLock.runExclusively(KEY, () -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException ignored) {
+            // ожидаемо
+        }
+
+        // Проверяем с отдельного соединения: блокировка пула не должна остаться висеть
+        try (Connection otherNode = dataSource.getConnection();
+             Statement statement = otherNode.createStatement();
+             ResultSet resultSet = statement.executeQuery("select pg_try_advisory_lock(" + KEY + ")")) {
+            resultSet.next();
+            assertThat(resultSet.getBoolean(1)).isTrue();
+
+            statement.execute("select pg_advisory_unlock(" + KEY + ")");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.CursorPage;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.exception.EntityNotFoundException;
+import org.nurfet.bookingsystem.exception.InvalidBookingStateException;
+import org.nurfet.bookingsystem.repository.ArchivedBookingRepository;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.BookingService;
+import org.nurfet.bookingsystem.service.archive.BookingArchiver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BookingArchiver Integration Test")
+public class BookingArchiveIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String ORGANIZER = "archive@example.com";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingArchiver archiver;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        archivedBookingRepository.deleteAllInBatch();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+
+        room = new Room("Тестовая комната", 10);
+        roomRepository.save(room);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedBookingRepository.deleteAllInBatch();
+    }
+
+    private Long insertBooking(Instant start, BookingStatus status) {
+        return jdbcTemplate.queryForObject("""
+        INSERT INTO bookings(room_id, title, organizer_email, start_time, end_time, status)
+        VALUES (?, 'Встреча', ?, ?, ?, ?)
+        RETURNING id
+        """, Long.class, room.getId(), ORGANIZER, Timestamp.from(start),
+                Timestamp.from(start.plus(1, ChronoUnit.HOURS)), status.name());
+    }
+
+    @Test
+    @DisplayName("Переносит в архив только завершённые бронирования старше срока хранения")
+    void archiveOnlyOldTerminalBookings() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant old = now.minus(200, ChronoUnit.DAYS);
+
+        Long expired = insertBooking(old, BookingStatus.EXPIRED);
+        Long cancelled = insertBooking(old.plus(2, ChronoUnit.HOURS), BookingStatus.CANCELLED);
+        Long recent = insertBooking(now.minus(2, ChronoUnit.DAYS), BookingStatus.EXPIRED);
+        Long upcoming = insertBooking(now.plus(1, ChronoUnit.DAYS), BookingStatus.CONFIRMED);
+
+        assertThat(archiver.archive(now)).isEqualTo(2);
+        assertThat(archiver.archive(now)).isZero();
+
+        assertThat(bookingRepository.findAll()).extracting(b -> b.getId())
+                .containsExactlyInAnyOrder(recent, upcoming);
+        assertThat(archivedBookingRepository.findAll()).extracting(b -> b.getId())
+                .containsExactlyInAnyOrder(expired, cancelled);
+    }
+
+    @Test
+    @DisplayName("Чтение по ID и списки организатора и статуса прозрачно включают архив")
+    void readThroughArchive() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Long archived = insertBooking(now.minus(200, ChronoUnit.DAYS), BookingStatus.EXPIRED);
+        Long hotExpired = insertBooking(now.minus(2, ChronoUnit.DAYS), BookingStatus.EXPIRED);
+        Long upcoming = insertBooking(now.plus(1, ChronoUnit.DAYS), BookingStatus.PENDING);
+
+        archiver.archive(now);
+
+        BookingResponse fromArchive = bookingService.getBooking(archived);
+        assertThat(fromArchive.status()).isEqualTo(BookingStatus.EXPIRED);
+        assertThat(fromArchive.roomName()).isEqualTo("Тестовая комната");
+
+        CursorPage<BookingResponse> first = bookingService.getBookingsByOrganizerEmail(ORGANIZER, null, 2);
+        assertThat(first.items()).extracting(BookingResponse::id).containsExactly(archived, hotExpired);
+
+        CursorPage<BookingResponse> second = bookingService.getBookingsByOrganizerEmail(ORGANIZER,
+                first.nextCursor(), 2);
+        assertThat(second.items()).extracting(BookingResponse::id).containsExactly(upcoming);
+        assertThat(second.nextCursor()).isNull();
+
+        assertThat(bookingService.getBookingsByStatus(BookingStatus.EXPIRED, null, 10).items())
+                .extracting(BookingResponse::id).containsExactly(archived, hotExpired);
+    }
+
+    @Test
+    @DisplayName("Список комнаты за интервал сливает рабочую таблицу и архив по одному keyset")
+    void roomRangeReadsThroughArchive() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant old = now.minus(200, ChronoUnit.DAYS);
+
+        Long archivedFirst = insertBooking(old, BookingStatus.EXPIRED);
+        Long archivedSecond = insertBooking(old.plus(2, ChronoUnit.HOURS), BookingStatus.CANCELLED);
+        Long hot = insertBooking(now.minus(2, ChronoUnit.DAYS), BookingStatus.EXPIRED);
+
+        archiver.archive(now);
+
+        Instant from = old.minus(1, ChronoUnit.DAYS);
+        CursorPage<BookingResponse> first = bookingService.getBookingByRoomAndTimeRange(room.getId(),
+                from, now, null, 2);
+        assertThat(first.items()).extracting(BookingResponse::id).containsExactly(archivedFirst, archivedSecond);
+
+        CursorPage<BookingResponse> second = bookingService.getBookingByRoomAndTimeRange(room.getId(),
+                from, now, first.nextCursor(), 2);
+        assertThat(second.items()).extracting(BookingResponse::id).containsExactly(hot);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Подтверждение и отмена архивного бронирования — отказ по статусу, а не 404")
+    void rejectTransitionsOfArchivedBooking() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Long archived = insertBooking(now.minus(200, ChronoUnit.DAYS), BookingStatus.CANCELLED);
+
+        archiver.archive(now);
+
+        assertThatThrownBy(() -> bookingService.confirmBooking(archived))
+                .isInstanceOf(InvalidBookingStateException.class);
+        assertThatThrownBy(() -> bookingService.cancelBooking(archived))
+                .isInstanceOf(InvalidBookingStateException.class);
+        assertThatThrownBy(() -> bookingService.confirmBooking(archived + 1_000_000))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Архивное бронирование читается и после удаления комнаты")
+    void readArchivedBookingOfDeletedRoom() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Long archived = insertBooking(now.minus(200, ChronoUnit.DAYS), BookingStatus.EXPIRED);
+
+        archiver.archive(now);
+        roomRepository.deleteAll();
+
+        BookingResponse response = bookingService.getBooking(archived);
+        assertThat(response.roomId()).isEqualTo(room.getId());
+        assertThat(response.roomName()).isEqualTo("Тестовая комната");
+    }
+}
@@ -1,14 +1,27 @@
 package org.nurfet.bookingsystem;
 
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.nurfet.bookingsystem.dto.request.CreateBookingRequest;
+import org.nurfet.bookingsystem.dto.request.CreateBookingSeriesRequest;
 import org.nurfet.bookingsystem.dto.request.CreateRoomRequest;
+import org.nurfet.bookingsystem.dto.request.UpdateBookingRequest;
+import org.nurfet.bookingsystem.dto.response.BookingBatchItemResponse;
+import org.nurfet.bookingsystem.dto.response.BookingBatchItemStatus;
+import org.nurfet.bookingsystem.dto.response.BookingBatchResponse;
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.BookingSeriesResponse;
 import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.entity.Booking;
+import org.nurfet.bookingsystem.entity.RecurrenceFrequency;
+import org.nurfet.bookingsystem.entity.Room;
 import org.nurfet.bookingsystem.exception.BookingConflictException;
 import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.BookingSeriesRepository;
 import org.nurfet.bookingsystem.repository.RoomRepository;
 import org.nurfet.bookingsystem.service.BookingService;
 import org.nurfet.bookingsystem.service.RoomService;
@@ -17,9 +30,11 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -40,6 +55,9 @@ class BookingConcurrencyTest extends AbstractIntegrationTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private BookingSeriesRepository seriesRepository;
+
     @Autowired
     private TransactionTemplate transactionTemplate;
 
@@ -49,11 +67,7 @@ class BookingConcurrencyTest extends AbstractIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        // Очистка в отдельной транзакции
-        transactionTemplate.executeWithoutResult(status -> {
-            bookingRepository.deleteAll();
-            roomRepository.deleteAll();
-        });
+        cleanUp();
 
         // Создание комнаты в отдельной транзакции
         testRoom = transactionTemplate.execute(status -> {
@@ -69,6 +83,16 @@ class BookingConcurrencyTest extends AbstractIntegrationTest {
         endTime = startTime.plus(1, ChronoUnit.HOURS);
     }
 
+    @AfterEach
+    void cleanUp() {
+        // Очистка в отдельной транзакции
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.deleteAll();
+            seriesRepository.deleteAll();
+            roomRepository.deleteAll();
+        });
+    }
+
     @Test
     @DisplayName("При 10 одновременных запросах на один слот — только 1 успешный")
     void whenTenThreadsBookSameSlot_thenOnlyOneSucceeds() throws InterruptedException {
@@ -240,4 +264,125 @@ class BookingConcurrencyTest extends AbstractIntegrationTest {
 
         assertThat(successes.get()).isEqualTo(threads);
     }
+
+    @Test
+    @DisplayName("Одновременные правки одного бронирования применяются все благодаря повторам")
+    void whenThreadsUpdateSameBooking_thenRetriesApplyAll() throws InterruptedException {
+        BookingResponse booking = bookingService.createBooking(new CreateBookingRequest(
+                testRoom.id(), "Исходная встреча", "owner@example.com", startTime, endTime));
+
+        // Каждая попытка проигрывает только чужому коммиту, поэтому трём потокам
+        // хватает booking.retry.max-retries = 3
+        int threads = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch readyLatch = new CountDownLatch(threads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threads);
+
+        AtomicInteger successes = new AtomicInteger(0);
+
+        for (int i = 0; i < threads; i++) {
+            final int threadNum = i;
+            executor.submit(() -> {
+                try {
+                    readyLatch.countDown();
+                    startLatch.await();
+
+                    // Без внешней транзакции: каждая попытка открывает свою
+                    bookingService.updateBooking(booking.id(), new UpdateBookingRequest(
+                            null, "Правка " + threadNum, null, null));
+                    successes.incrementAndGet();
+
+                } catch (Exception e) {
+                    System.err.println("Ошибка: " + e.getMessage());
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+
+        readyLatch.await(5, TimeUnit.SECONDS);
+        startLatch.countDown();
+        boolean finished = doneLatch.await(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(finished).isTrue();
+        assertThat(successes.get()).isEqualTo(threads);
+
+        Long version = transactionTemplate.execute(status ->
+                bookingRepository.findById(booking.id()).orElseThrow().getVersion());
+        assertThat(version).isEqualTo(Long.valueOf(threads));
+    }
+
+    @Test
+    @DisplayName("Пакет: элемент, пересёкшийся с параллельной вставкой, получает CONFLICT, остальные создаются")
+    void whenConcurrentInsertOverlapsBatchItem_thenOnlyThatItemConflicts() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch inserted = new CountDownLatch(1);
+
+        // Параллельная вставка без блокировки комнаты, закоммиченная уже после
+        // проверки пакета: пересечение обнаруживает только ограничение БД
+        Future<?> concurrent = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            Room room = roomRepository.findById(testRoom.id()).orElseThrow();
+            bookingRepository.saveAndFlush(new Booking(room, "Параллельная встреча", "other@example.com",
+                    startTime, endTime));
+            inserted.countDown();
+
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        BookingBatchResponse response = bookingService.createBookings(List.of(
+                new CreateBookingRequest(testRoom.id(), "Пакет 1", "batch@example.com", startTime, endTime),
+                new CreateBookingRequest(testRoom.id(), "Пакет 2", "batch@example.com",
+                        endTime, endTime.plus(1, ChronoUnit.HOURS))));
+
+        concurrent.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(response.items())
+                .extracting(BookingBatchItemResponse::status)
+                .containsExactly(BookingBatchItemStatus.CONFLICT, BookingBatchItemStatus.CREATED);
+
+        Long count = transactionTemplate.execute(status -> bookingRepository.count());
+        assertThat(count).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Серия с skipConflicts: вхождение, пересёкшееся с параллельной вставкой, пропускается")
+    void whenConcurrentInsertOverlapsSeriesOccurrence_thenItIsSkipped() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch inserted = new CountDownLatch(1);
+        Instant busyStart = startTime.plus(7, ChronoUnit.DAYS);
+
+        Future<?> concurrent = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            Room room = roomRepository.findById(testRoom.id()).orElseThrow();
+            bookingRepository.saveAndFlush(new Booking(room, "Параллельная встреча", "other@example.com",
+                    busyStart, busyStart.plus(1, ChronoUnit.HOURS)));
+            inserted.countDown();
+
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        BookingSeriesResponse response = bookingService.createSeries(new CreateBookingSeriesRequest(
+                testRoom.id(), "Еженедельная встреча", "series@example.com", startTime, endTime,
+                RecurrenceFrequency.WEEKLY, null, null, 3, null, true));
+
+        concurrent.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(response.bookings()).hasSize(2);
+        assertThat(response.skipped()).extracting(TimeSlotResponse::startTime).containsExactly(busyStart);
+    }
 }
@@ -1,22 +1,35 @@
 package org.nurfet.bookingsystem;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.dto.request.CreateBookingBatchRequest;
 import org.nurfet.bookingsystem.dto.request.CreateBookingRequest;
 import org.nurfet.bookingsystem.dto.request.CreateRoomRequest;
+import org.nurfet.bookingsystem.dto.response.BookingBatchItemResponse;
+import org.nurfet.bookingsystem.dto.response.BookingBatchItemStatus;
+import org.nurfet.bookingsystem.dto.response.BookingBatchResponse;
 import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.CursorPage;
 import org.nurfet.bookingsystem.dto.response.RoomResponse;
 import org.nurfet.bookingsystem.entity.BookingStatus;
 import org.nurfet.bookingsystem.repository.BookingRepository;
 import org.nurfet.bookingsystem.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -31,6 +44,9 @@ class BookingControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private RoomResponse testRoom;
 
     @BeforeEach
@@ -181,6 +197,142 @@ class BookingControllerIntegrationTest extends AbstractIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Курсорная пагинация списков")
+    class CursorPaginationTests {
+
+        private void createBookings(String email, Instant day, int count) {
+            for (int i = 0; i < count; i++) {
+                webTestClient.post()
+                        .uri("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new CreateBookingRequest(testRoom.id(), "Meeting " + i, email,
+                                day.plus(9 + i, ChronoUnit.HOURS), day.plus(10 + i, ChronoUnit.HOURS)))
+                        .exchange()
+                        .expectStatus().isCreated();
+            }
+        }
+
+        @Test
+        @DisplayName("Организатор: страницы идут по startTime без пропусков и повторов")
+        void shouldPageOrganizerBookings() {
+            Instant day = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+            createBookings("pager@example.com", day, 3);
+
+            CursorPage<BookingResponse> first = webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/organizer")
+                            .queryParam("email", "pager@example.com")
+                            .queryParam("size", 2)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(new ParameterizedTypeReference<CursorPage<BookingResponse>>() {})
+                    .returnResult()
+                    .getResponseBody();
+
+            assertThat(first.items()).extracting(BookingResponse::title)
+                    .containsExactly("Meeting 0", "Meeting 1");
+            assertThat(first.nextCursor()).isNotNull();
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/organizer")
+                            .queryParam("email", "pager@example.com")
+                            .queryParam("size", 2)
+                            .queryParam("cursor", first.nextCursor())
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.items.length()").isEqualTo(1)
+                    .jsonPath("$.items[0].title").isEqualTo("Meeting 2")
+                    .jsonPath("$.nextCursor").doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Комната за период: размер страницы ограничен")
+        void shouldPageRoomTimeRange() {
+            Instant day = Instant.now().plus(4, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+            createBookings("range@example.com", day, 3);
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/room/{roomId}")
+                            .queryParam("from", day.toString())
+                            .queryParam("to", day.plus(1, ChronoUnit.DAYS).toString())
+                            .queryParam("size", 2)
+                            .build(testRoom.id()))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.items.length()").isEqualTo(2)
+                    .jsonPath("$.items[0].title").isEqualTo("Meeting 0")
+                    .jsonPath("$.nextCursor").isNotEmpty();
+        }
+
+        @Test
+        @DisplayName("400 при некорректном курсоре")
+        void shouldRejectInvalidCursor() {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/status")
+                            .queryParam("status", "PENDING")
+                            .queryParam("cursor", "not-a-cursor")
+                            .build())
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/bookings/free-slots")
+    class FreeSlotsApiTests {
+
+        @Test
+        @DisplayName("Слоты начинаются после занятого интервала")
+        void shouldSkipBusyInterval() {
+            Instant day = Instant.now().plus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+            webTestClient.post()
+                    .uri("/api/v1/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CreateBookingRequest(testRoom.id(), "Busy", "admin@gmail.com",
+                            day.plus(9, ChronoUnit.HOURS), day.plus(10, ChronoUnit.HOURS)))
+                    .exchange()
+                    .expectStatus().isCreated();
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/free-slots")
+                            .queryParam("capacity", 10)
+                            .queryParam("durationMinutes", 60)
+                            .queryParam("from", day.plus(9, ChronoUnit.HOURS).toString())
+                            .queryParam("limit", 2)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.length()").isEqualTo(1)
+                    .jsonPath("$[0].roomId").isEqualTo(testRoom.id())
+                    .jsonPath("$[0].slots.length()").isEqualTo(2)
+                    .jsonPath("$[0].slots[0].startTime").isEqualTo(day.plus(10, ChronoUnit.HOURS).toString())
+                    .jsonPath("$[0].slots[1].startTime").isEqualTo(day.plus(11, ChronoUnit.HOURS).toString());
+        }
+
+        @Test
+        @DisplayName("400 при длительности меньше минимальной")
+        void shouldRejectTooShortDuration() {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/free-slots")
+                            .queryParam("durationMinutes", 10)
+                            .build())
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/v1/bookings/{id}/confirm")
     class ConfirmBookingApiTests {
@@ -287,7 +439,241 @@ class BookingControllerIntegrationTest extends AbstractIntegrationTest {
                     .expectBody()
                     .jsonPath("$.available").isEqualTo(false)
                     .jsonPath("$.conflicts").isArray()
-                    .jsonPath("$.conflicts").isNotEmpty();
+                    .jsonPath("$.conflicts").isNotEmpty()
+                    .jsonPath("$.totalConflicts").isEqualTo(1)
+                    .jsonPath("$.conflicts[0].roomName").isEqualTo(testRoom.name());
+        }
+
+        @Test
+        @DisplayName("404 для несуществующей комнаты")
+        void shouldReturn404ForMissingRoom() {
+            Instant startTime = Instant.now().plus(1, ChronoUnit.DAYS);
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/availability")
+                            .queryParam("roomId", 999_999L)
+                            .queryParam("startTime", startTime.toString())
+                            .queryParam("endTime", startTime.plus(1, ChronoUnit.HOURS).toString())
+                            .build())
+                    .exchange()
+                    .expectStatus().isNotFound();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/bookings/availability/rooms")
+    class RoomsAvailabilityApiTests {
+
+        @Test
+        @DisplayName("Возвращает доступность для каждой запрошенной комнаты")
+        void shouldReturnAvailabilityPerRoom() {
+            RoomResponse secondRoom = webTestClient.post()
+                    .uri("/api/v1/rooms")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CreateRoomRequest("Second API Room", 4, "Free room"))
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody(RoomResponse.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            BookingResponse booking = createBooking();
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/availability/rooms")
+                            .queryParam("roomIds", testRoom.id(), secondRoom.id())
+                            .queryParam("startTime", booking.startTime().toString())
+                            .queryParam("endTime", booking.endTime().toString())
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.length()").isEqualTo(2)
+                    .jsonPath("$[0].roomId").isEqualTo(testRoom.id())
+                    .jsonPath("$[0].available").isEqualTo(false)
+                    .jsonPath("$[0].conflicts[0].id").isEqualTo(booking.id())
+                    .jsonPath("$[1].roomId").isEqualTo(secondRoom.id())
+                    .jsonPath("$[1].available").isEqualTo(true);
+        }
+
+        @Test
+        @DisplayName("Без roomIds комнаты выбираются фильтром")
+        void shouldSelectRoomsByFilter() {
+            Instant startTime = Instant.now().plus(1, ChronoUnit.DAYS);
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/availability/rooms")
+                            .queryParam("capacity", 10)
+                            .queryParam("startTime", startTime.toString())
+                            .queryParam("endTime", startTime.plus(1, ChronoUnit.HOURS).toString())
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.length()").isEqualTo(1)
+                    .jsonPath("$[0].roomId").isEqualTo(testRoom.id())
+                    .jsonPath("$[0].available").isEqualTo(true);
+        }
+
+        @Test
+        @DisplayName("400 если endTime не позже startTime")
+        void shouldReturn400WhenIntervalEmpty() {
+            Instant startTime = Instant.now().plus(1, ChronoUnit.DAYS);
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/availability/rooms")
+                            .queryParam("capacity", 10)
+                            .queryParam("startTime", startTime.toString())
+                            .queryParam("endTime", startTime.toString())
+                            .build())
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+
+        @Test
+        @DisplayName("404 если одна из комнат не найдена")
+        void shouldReturn404WhenRoomMissing() {
+            Instant startTime = Instant.now().plus(1, ChronoUnit.DAYS);
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/bookings/availability/rooms")
+                            .queryParam("roomIds", testRoom.id(), 999_999L)
+                            .queryParam("startTime", startTime.toString())
+                            .queryParam("endTime", startTime.plus(1, ChronoUnit.HOURS).toString())
+                            .build())
+                    .exchange()
+                    .expectStatus().isNotFound();
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/v1/bookings/batch")
+    class CreateBookingBatchApiTests {
+
+        @Test
+        @DisplayName("200 OK — частичный успех с результатом на каждый элемент")
+        void shouldCreateValidItemsAndReportRejected() {
+            Instant base = Instant.now().plus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+
+            RoomResponse inactiveRoom = webTestClient.post()
+                    .uri("/api/v1/rooms")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CreateRoomRequest("Inactive Room", 4, "Closed for repair"))
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody(RoomResponse.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            webTestClient.post()
+                    .uri("/api/v1/rooms/{id}/deactivate", inactiveRoom.id())
+                    .exchange()
+                    .expectStatus().isOk();
+
+            // Уже существующее бронирование 14:00–15:00
+            webTestClient.post()
+                    .uri("/api/v1/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CreateBookingRequest(testRoom.id(), "Existing", "existing@example.com",
+                            base.plus(4, ChronoUnit.HOURS), base.plus(5, ChronoUnit.HOURS)))
+                    .exchange()
+                    .expectStatus().isCreated();
+
+            CreateBookingBatchRequest request = new CreateBookingBatchRequest(List.of(
+                    item(testRoom.id(), base, base.plus(1, ChronoUnit.HOURS)),
+                    item(testRoom.id(), base.plus(270, ChronoUnit.MINUTES), base.plus(6, ChronoUnit.HOURS)),
+                    item(testRoom.id(), base.plus(30, ChronoUnit.MINUTES), base.plus(90, ChronoUnit.MINUTES)),
+                    item(999_999L, base, base.plus(1, ChronoUnit.HOURS)),
+                    item(inactiveRoom.id(), base, base.plus(1, ChronoUnit.HOURS)),
+                    item(testRoom.id(), base.plus(2, ChronoUnit.HOURS), base.plus(130, ChronoUnit.MINUTES)),
+                    item(testRoom.id(), base.plus(1, ChronoUnit.HOURS), base.plus(2, ChronoUnit.HOURS))
+            ));
+
+            webTestClient.post()
+                    .uri("/api/v1/bookings/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(BookingBatchResponse.class)
+                    .value(response -> {
+                        assertThat(response.created()).isEqualTo(2);
+                        assertThat(response.rejected()).isEqualTo(5);
+                        assertThat(response.items())
+                                .extracting(BookingBatchItemResponse::status)
+                                .containsExactly(
+                                        BookingBatchItemStatus.CREATED,
+                                        BookingBatchItemStatus.CONFLICT,
+                                        BookingBatchItemStatus.CONFLICT,
+                                        BookingBatchItemStatus.ROOM_NOT_FOUND,
+                                        BookingBatchItemStatus.ROOM_NOT_AVAILABLE,
+                                        BookingBatchItemStatus.INVALID,
+                                        BookingBatchItemStatus.CREATED);
+
+                        BookingResponse created = response.items().getLast().booking();
+                        assertThat(created.id()).isNotNull();
+                        assertThat(created.roomName()).isEqualTo(testRoom.name());
+                        assertThat(created.startTime()).isEqualTo(base.plus(1, ChronoUnit.HOURS));
+                        assertThat(created.status()).isEqualTo(BookingStatus.PENDING);
+                        assertThat(response.items().get(1).booking()).isNull();
+                        assertThat(response.items().get(1).message()).isNotBlank();
+                    });
+
+            webTestClient.get()
+                    .uri("/api/v1/bookings/room/{roomId}/count", testRoom.id())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.activeBookingsCount").isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("200 OK — вставки пакета уходят JDBC-пакетом, а не отдельными командами")
+        void shouldInsertBatchWithFewStatements() {
+            Instant base = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+            int size = 40;
+
+            List<CreateBookingRequest> items = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Instant start = base.plus(i * 30L, ChronoUnit.MINUTES);
+                items.add(item(testRoom.id(), start, start.plus(30, ChronoUnit.MINUTES)));
+            }
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            webTestClient.post()
+                    .uri("/api/v1/bookings/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CreateBookingBatchRequest(items))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(BookingBatchResponse.class)
+                    .value(response -> assertThat(response.created()).isEqualTo(size));
+
+            // Блокировка комнат, проверка конфликтов, блок id и один пакетный INSERT
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(size);
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        }
+
+        @Test
+        @DisplayName("400 Bad Request — пустой пакет")
+        void shouldReturn400WhenBatchIsEmpty() {
+            webTestClient.post()
+                    .uri("/api/v1/bookings/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CreateBookingBatchRequest(List.of()))
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+
+        private CreateBookingRequest item(Long roomId, Instant start, Instant end) {
+            return new CreateBookingRequest(roomId, "Sync Meeting", "sync@example.com", start, end);
         }
     }
 
@@ -371,6 +757,57 @@ class BookingControllerIntegrationTest extends AbstractIntegrationTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    @DisplayName("PATCH /api/v1/bookings/{id} — If-Match с устаревшим ETag даёт 412")
+    void updateBookingWithStaleIfMatch() {
+        BookingResponse original = createBooking();
+
+        webTestClient.get()
+                .uri("/api/v1/bookings/{id}", original.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"");
+
+        webTestClient.patch()
+                .uri("/api/v1/bookings/{id}", original.id())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {
+                        "title": "Первое изменение"
+                    }
+                    """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        // Подтверждение тоже меняет версию
+        webTestClient.post()
+                .uri("/api/v1/bookings/{id}/confirm", original.id())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri("/api/v1/bookings/{id}", original.id())
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {
+                        "title": "Второе изменение"
+                    }
+                    """)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.get()
+                .uri("/api/v1/bookings/{id}", original.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody(BookingResponse.class)
+                .value(response -> assertThat(response.title()).isEqualTo("Первое изменение"));
+    }
+
     // Вспомогательный метод
     private BookingResponse createBooking() {
         CreateBookingRequest request = new CreateBookingRequest(
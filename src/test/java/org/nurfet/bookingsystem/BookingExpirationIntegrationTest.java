@@ -3,18 +3,30 @@ package org.nurfet.bookingsystem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.nurfet.bookingsystem.config.BookingCleanupScheduler;
+import org.nurfet.bookingsystem.config.BookingProperties;
 import org.nurfet.bookingsystem.entity.Booking;
 import org.nurfet.bookingsystem.entity.BookingStatus;
 import org.nurfet.bookingsystem.entity.Room;
 import org.nurfet.bookingsystem.repository.BookingRepository;
 import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.BookingExpiryProcessor;
 import org.nurfet.bookingsystem.service.BookingService;
+import org.nurfet.bookingsystem.service.expiry.BookingExpiryTimer;
+import org.nurfet.bookingsystem.service.lock.AdvisoryLock;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,6 +45,15 @@ public class BookingExpirationIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AdvisoryLock advisoryLock;
+
     private Room room;
 
     @BeforeEach
@@ -141,4 +162,105 @@ public class BookingExpirationIntegrationTest extends AbstractIntegrationTest {
         Booking updated = bookingRepository.findById(booking.getId()).orElseThrow();
         assertThat(updated.getStatus()).isEqualTo(BookingStatus.CANCELLED);
     }
+
+    private BookingExpiryProcessor expiryProcessor(int batchSize, int maxBatches, MeterRegistry registry) {
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "booking.expiry.batch-size", String.valueOf(batchSize),
+                "booking.expiry.max-batches", String.valueOf(maxBatches))))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        return new BookingExpiryProcessor(bookingRepository, eventPublisher, transactionManager,
+                properties, registry);
+    }
+
+    private void createExpiredBookings(int count) {
+        Instant base = Instant.now().minus(1, ChronoUnit.DAYS);
+
+        for (int i = 0; i < count; i++) {
+            Instant start = base.plus(i, ChronoUnit.HOURS);
+            createConfirmedBookingInPast(start, start.plus(30, ChronoUnit.MINUTES));
+        }
+    }
+
+    @Test
+    @DisplayName("Пакетная обработка помечает все истекшие бронирования и пишет метрики")
+    void expireInBatches() {
+        createExpiredBookings(5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        int count = expiryProcessor(2, 100, registry).expireBookings();
+
+        assertThat(count).isEqualTo(5);
+        assertThat(bookingRepository.findAll())
+                .extracting(Booking::getStatus)
+                .containsOnly(BookingStatus.EXPIRED);
+        assertThat(registry.get("booking.expiry.batches").counter().count()).isEqualTo(3.0);
+        assertThat(registry.get("booking.expiry.expired").counter().count()).isEqualTo(5.0);
+        assertThat(registry.get("booking.expiry.run").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Запуск ограничен max-batches, остаток обрабатывается следующим запуском")
+    void stopAfterMaxBatches() {
+        createExpiredBookings(5);
+        BookingExpiryProcessor processor = expiryProcessor(2, 1, new SimpleMeterRegistry());
+
+        assertThat(processor.expireBookings()).isEqualTo(2);
+        assertThat(processor.expireBookings()).isEqualTo(2);
+        assertThat(processor.expireBookings()).isEqualTo(1);
+        assertThat(processor.expireBookings()).isEqualTo(0);
+    }
+
+    private BookingExpiryTimer expiryTimer() {
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "booking.expiry.timer-enabled", "true")))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        BookingExpiryTimer timer = new BookingExpiryTimer(bookingRepository, eventPublisher, transactionManager,
+                advisoryLock, properties);
+        timer.onApplicationReady();
+
+        return timer;
+    }
+
+    private BookingStatus tickUntilExpired(BookingExpiryTimer timer, Long bookingId) throws InterruptedException {
+        BookingStatus status = BookingStatus.CONFIRMED;
+
+        for (int attempt = 0; attempt < 50 && status != BookingStatus.EXPIRED; attempt++) {
+            Thread.sleep(100);
+            timer.tick();
+            status = bookingRepository.findById(bookingId).orElseThrow().getStatus();
+        }
+
+        return status;
+    }
+
+    @Test
+    @DisplayName("Колесо таймеров помечает бронирование сразу после окончания")
+    void expireByTimerWheel() throws InterruptedException {
+        Instant end = Instant.now().plusSeconds(1);
+        Long bookingId = createConfirmedBookingInPast(end.minus(30, ChronoUnit.MINUTES), end);
+        BookingExpiryTimer timer = expiryTimer();
+
+        assertThat(tickUntilExpired(timer, bookingId)).isEqualTo(BookingStatus.EXPIRED);
+    }
+
+    @Test
+    @DisplayName("Колесо таймеров не срабатывает, пока блокировку истечения держит другой узел")
+    void timerWheelWaitsForExpiryLock() throws InterruptedException {
+        Instant end = Instant.now().plusSeconds(1);
+        Long bookingId = createConfirmedBookingInPast(end.minus(30, ChronoUnit.MINUTES), end);
+        BookingExpiryTimer timer = expiryTimer();
+
+        advisoryLock.runExclusively(BookingCleanupScheduler.EXPIRY_LOCK_KEY, () -> {
+            try {
+                assertThat(tickUntilExpired(timer, bookingId)).isEqualTo(BookingStatus.CONFIRMED);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Сроки, пропущенные под чужой блокировкой, срабатывают на следующих тиках
+        assertThat(tickUntilExpired(timer, bookingId)).isEqualTo(BookingStatus.EXPIRED);
+    }
 }
@@ -0,0 +1,128 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.service.availability.BookingIntervalIndex;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("BookingIntervalIndex")
+class BookingIntervalIndexTest {
+
+    private BookingIntervalIndex index;
+    private BookingRepository repository;
+    private Instant baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+        repository = mock(BookingRepository.class);
+        given(repository.findActiveSlots(any())).willReturn(List.of(
+                slot(1L, 1L, 9, 10, BookingStatus.PENDING),
+                slot(2L, 1L, 10, 12, BookingStatus.CONFIRMED),
+                slot(3L, 2L, 9, 17, BookingStatus.CONFIRMED)
+        ));
+
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("booking.index.enabled", "true")))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        index = new BookingIntervalIndex(repository, properties);
+        index.rebuild();
+    }
+
+    private BookingSlot slot(Long id, Long roomId, int startHour, int endHour, BookingStatus status) {
+        return new BookingSlot(id, roomId,
+                baseTime.plus(startHour, ChronoUnit.HOURS),
+                baseTime.plus(endHour, ChronoUnit.HOURS),
+                status);
+    }
+
+    private Instant at(int hour) {
+        return baseTime.plus(hour, ChronoUnit.HOURS);
+    }
+
+    @Test
+    @DisplayName("находит пересечения в порядке начала")
+    void findOverlappingInStartOrder() {
+        assertThat(index.findOverlappingIds(1L, at(9), at(11))).containsExactly(1L, 2L);
+        assertThat(index.findOverlappingIds(2L, at(16), at(18))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("смежные интервалы не пересекаются")
+    void adjacentIntervalsDoNotOverlap() {
+        assertThat(index.hasOverlap(1L, at(12), at(13))).isFalse();
+        assertThat(index.hasOverlap(1L, at(8), at(9))).isFalse();
+        assertThat(index.hasOverlap(3L, at(9), at(10))).isFalse();
+    }
+
+    @Test
+    @DisplayName("исключает обновляемое бронирование")
+    void excludeUpdatedBooking() {
+        assertThat(index.hasOverlap(1L, at(10), at(11), 2L)).isFalse();
+        assertThat(index.hasOverlap(1L, at(9), at(11), 2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("отмена и перенос обновляют индекс")
+    void applyBookingChanges() {
+        BookingSlot pending = slot(1L, 1L, 9, 10, BookingStatus.PENDING);
+
+        index.onBookingChanged(new BookingChangedEvent(pending,
+                slot(1L, 1L, 9, 10, BookingStatus.CANCELLED)));
+        assertThat(index.hasOverlap(1L, at(9), at(10))).isFalse();
+
+        index.onBookingChanged(BookingChangedEvent.created(slot(4L, 2L, 18, 19, BookingStatus.PENDING)));
+        index.onBookingChanged(new BookingChangedEvent(slot(4L, 2L, 18, 19, BookingStatus.PENDING),
+                slot(4L, 1L, 13, 14, BookingStatus.PENDING)));
+
+        assertThat(index.hasOverlap(2L, at(18), at(19))).isFalse();
+        assertThat(index.findOverlappingIds(1L, at(13), at(14))).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("истёкшие бронирования удаляются")
+    void removeExpiredBookings() {
+        index.onBookingsExpired(new BookingsExpiredEvent(at(11)));
+
+        assertThat(index.hasOverlap(1L, at(9), at(10))).isFalse();
+        assertThat(index.hasOverlap(1L, at(11), at(12))).isTrue();
+        assertThat(index.hasOverlap(2L, at(9), at(10))).isTrue();
+    }
+
+    @Test
+    @DisplayName("событие, пришедшее во время пересборки, не теряется")
+    void replayEventsDuringRebuild() {
+        BookingSlot created = slot(5L, 1L, 14, 15, BookingStatus.PENDING);
+
+        // Коммит между чтением из БД и заменой структур: чтение его ещё не видит
+        given(repository.findActiveSlots(any())).willAnswer(invocation -> {
+            index.onBookingChanged(BookingChangedEvent.created(created));
+            return List.of(slot(1L, 1L, 9, 10, BookingStatus.PENDING));
+        });
+
+        index.rebuild();
+
+        assertThat(index.findOverlappingIds(1L, at(9), at(15))).containsExactly(1L, 5L);
+        assertThat(index.hasOverlap(2L, at(9), at(10))).isFalse();
+    }
+}
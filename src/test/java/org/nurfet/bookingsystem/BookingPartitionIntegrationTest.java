@@ -0,0 +1,230 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.exception.BookingConflictException;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.partition.BookingPartitionMaintenance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Booking partitioning Integration Test")
+public class BookingPartitionIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingPartitionMaintenance partitionMaintenance;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+
+        room = new Room("Тестовая комната", 10);
+        roomRepository.save(room);
+    }
+
+    private void insertBooking(Instant start, Instant end, String status) {
+        jdbcTemplate.update("""
+        INSERT INTO bookings(room_id, title, organizer_email, start_time, end_time, status)
+        VALUES (?, 'Встреча', 'test@example.com', ?, ?, ?)
+        """, room.getId(), Timestamp.from(start), Timestamp.from(end), status);
+    }
+
+    private String partitionOf(Instant start) {
+        return jdbcTemplate.queryForObject(
+                "select tableoid::regclass::text from bookings where room_id = ? and start_time = ?",
+                String.class, room.getId(), Timestamp.from(start));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "bookings_y%dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    private static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    @Test
+    @DisplayName("Создаёт партиции вперёд и переносит в новую партицию строки из default")
+    void createFuturePartitions() {
+        YearMonth far = YearMonth.now(ZoneOffset.UTC).plusYears(5);
+        Instant start = monthStart(far).plus(10, ChronoUnit.DAYS);
+
+        insertBooking(start, start.plus(1, ChronoUnit.HOURS), "PENDING");
+        assertThat(partitionOf(start)).isEqualTo("bookings_default");
+
+        assertThat(partitionMaintenance.createPartitions(far, far)).isEqualTo(1);
+        assertThat(partitionMaintenance.createPartitions(far, far)).isZero();
+
+        assertThat(partitionMaintenance.listPartitions()).contains(far);
+        assertThat(partitionOf(start)).isEqualTo(partitionName(far));
+
+        // dropPartitionsBefore задел бы и партиции ближайших месяцев
+        bookingRepository.deleteAll();
+        jdbcTemplate.queryForObject("select drop_booking_partition(?)", Boolean.class, far.atDay(1));
+        assertThat(partitionMaintenance.listPartitions()).doesNotContain(far);
+    }
+
+    @Test
+    @DisplayName("Не удаляет старую партицию, пока в ней есть бронирования, в том числе завершённые")
+    void keepPartitionWithBookings() {
+        YearMonth old = YearMonth.of(2001, 1);
+        Instant start = monthStart(old).plus(3, ChronoUnit.DAYS);
+
+        partitionMaintenance.createPartitions(old, old);
+        insertBooking(start, start.plus(1, ChronoUnit.HOURS), "CONFIRMED");
+
+        assertThat(partitionMaintenance.dropPartitionsBefore(old.plusMonths(1))).isZero();
+        assertThat(partitionMaintenance.listPartitions()).contains(old);
+
+        // Завершённое, но не перенесённое в архив бронирование тоже держит партицию
+        jdbcTemplate.update("update bookings set status = 'EXPIRED' where room_id = ?", room.getId());
+
+        assertThat(partitionMaintenance.dropPartitionsBefore(old.plusMonths(1))).isZero();
+        assertThat(partitionMaintenance.listPartitions()).contains(old);
+
+        bookingRepository.deleteAll();
+
+        assertThat(partitionMaintenance.dropPartitionsBefore(old.plusMonths(1))).isEqualTo(1);
+        assertThat(partitionMaintenance.listPartitions()).doesNotContain(old);
+    }
+
+    @Test
+    @DisplayName("Пересечение через границу месяцев отклоняется как excl_booking_overlap")
+    void rejectOverlapAcrossPartitions() {
+        Instant boundary = monthStart(YearMonth.now(ZoneOffset.UTC).plusMonths(1));
+
+        insertBooking(boundary.minus(1, ChronoUnit.HOURS), boundary.plus(1, ChronoUnit.HOURS), "PENDING");
+
+        assertThatThrownBy(() -> insertBooking(boundary.plus(30, ChronoUnit.MINUTES),
+                boundary.plus(90, ChronoUnit.MINUTES), "CONFIRMED"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(BookingConflictException
+                        .isOverlapViolation((DataIntegrityViolationException) e)).isTrue());
+
+        // Смежный интервал в соседней партиции допустим
+        insertBooking(boundary.plus(1, ChronoUnit.HOURS), boundary.plus(2, ChronoUnit.HOURS), "PENDING");
+    }
+
+    @Test
+    @DisplayName("Запрос пересечений читает только партицию своего месяца")
+    void overlapQueryPrunesPartitions() {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).plusMonths(2);
+        Instant start = monthStart(month).plus(14, ChronoUnit.DAYS);
+
+        // Те же условия, что в BookingRepository.existsOverlappingBooking
+        List<String> plan = jdbcTemplate.queryForList("""
+                explain (costs off)
+                select 1 from bookings b
+                where b.room_id = ?
+                and b.status in('PENDING', 'CONFIRMED')
+                and b.start_time < ?
+                and b.end_time > ?
+                and b.start_time > ?::timestamptz - interval '8 hours'
+                """, String.class, room.getId(),
+                Timestamp.from(start.plus(1, ChronoUnit.HOURS)), Timestamp.from(start), Timestamp.from(start));
+
+        assertThat(String.join("\n", plan))
+                .contains(partitionName(month))
+                .doesNotContain("bookings_default");
+        assertThat(plan.stream().filter(line -> line.contains("bookings_y")).map(line -> line
+                .replaceAll(".*(bookings_y\\d{4}m\\d{2}).*", "$1")).distinct()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Обобщённый план с параметрами отсекает партиции при запуске")
+    void overlapQueryPrunesPartitionsWithBoundParameters() {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).plusMonths(2);
+        Instant start = monthStart(month).plus(14, ChronoUnit.DAYS);
+
+        // Приложение передаёт границы параметрами, и повторно выполняемый
+        // подготовленный запрос переходит на обобщённый план: значения параметров
+        // планировщику не видны, и партиции отсекаются только при запуске
+        List<String> plan = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set plan_cache_mode = force_generic_plan");
+                statement.execute("""
+                        prepare overlap(bigint, timestamptz, timestamptz) as
+                        select 1 from bookings b
+                        where b.room_id = $1
+                        and b.status in('PENDING', 'CONFIRMED')
+                        and b.start_time < $3
+                        and b.end_time > $2
+                        and b.start_time > $2 - interval '8 hours'
+                        """);
+
+                try (ResultSet resultSet = statement.executeQuery(
+                        "explain (costs off) execute overlap(%d, '%s', '%s')".formatted(
+                                room.getId(), start, start.plus(1, ChronoUnit.HOURS)))) {
+                    List<String> lines = new ArrayList<>();
+
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+
+                    return lines;
+                } finally {
+                    statement.execute("deallocate overlap");
+                    statement.execute("reset plan_cache_mode");
+                }
+            }
+        });
+
+        assertThat(String.join("\n", plan))
+                .contains("Subplans Removed")
+                .contains(partitionName(month))
+                .doesNotContain("bookings_default");
+    }
+
+    @Test
+    @DisplayName("Вставка на границе месяцев работает для комнаты с id больше 2^31")
+    void crossPartitionCheckAcceptsLargeRoomId() {
+        long roomId = Integer.MAX_VALUE + 10L;
+        jdbcTemplate.update("insert into rooms(id, name, capacity) values (?, 'Большой id', 5)", roomId);
+
+        Instant boundary = monthStart(YearMonth.now(ZoneOffset.UTC).plusMonths(1));
+
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO bookings(room_id, title, organizer_email, start_time, end_time, status)
+                    VALUES (?, 'Встреча', 'test@example.com', ?, ?, 'PENDING')
+                    """, roomId, Timestamp.from(boundary.minus(1, ChronoUnit.HOURS)),
+                    Timestamp.from(boundary.plus(1, ChronoUnit.HOURS)));
+
+            assertThat(jdbcTemplate.queryForObject("select count(*) from bookings where room_id = ?",
+                    Long.class, roomId)).isEqualTo(1L);
+        } finally {
+            jdbcTemplate.update("delete from bookings where room_id = ?", roomId);
+            jdbcTemplate.update("delete from rooms where id = ?", roomId);
+        }
+    }
+}
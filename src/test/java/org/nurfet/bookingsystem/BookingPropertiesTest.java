@@ -0,0 +1,86 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BookingProperties")
+class BookingPropertiesTest {
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(BookingProperties.class)
+    static class PropertiesConfiguration {
+    }
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    @DisplayName("conflict-limit меньше 1 не даёт приложению стартовать")
+    void rejectNonPositiveConflictLimit() {
+        contextRunner.withPropertyValues("booking.availability.conflict-limit=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"booking.expiry.batch-size=0", "booking.expiry.max-batches=0"})
+    @DisplayName("Пакет истечения меньше 1 строки или 1 пакета не даёт приложению стартовать")
+    void rejectNonPositiveExpiryBatches(String property) {
+        contextRunner.withPropertyValues(property)
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "booking.archive.batch-size=0",
+            "booking.archive.max-batches=0",
+            "booking.archive.interval=0s",
+            "booking.archive.retention=-1d"
+    })
+    @DisplayName("Нулевые пакеты и период архивации не дают приложению стартовать")
+    void rejectInvalidArchiveSettings(String property) {
+        contextRunner.withPropertyValues(property)
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    @DisplayName("Удаление партиций без архивации не даёт приложению стартовать")
+    void rejectPartitionRetentionWithoutArchive() {
+        contextRunner.withPropertyValues("booking.partitioning.retention-months=6")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    @DisplayName("Архив, хранящий строки дольше партиций, не даёт приложению стартовать")
+    void rejectArchiveRetentionLongerThanPartitions() {
+        contextRunner.withPropertyValues(
+                        "booking.partitioning.retention-months=3",
+                        "booking.archive.enabled=true",
+                        "booking.archive.retention=120d")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    @DisplayName("Удаление партиций вместе с более короткой архивацией проходит проверку")
+    void acceptPartitionRetentionWithArchive() {
+        contextRunner.withPropertyValues(
+                        "booking.partitioning.retention-months=6",
+                        "booking.archive.enabled=true",
+                        "booking.archive.retention=90d")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    @DisplayName("Значения по умолчанию проходят проверку")
+    void acceptDefaults() {
+        contextRunner.run(context -> assertThat(context.getBean(BookingProperties.class)
+                .availability().conflictLimit()).isEqualTo(20));
+    }
+}
@@ -0,0 +1,215 @@
+package org.nurfet.bookingsystem;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.dto.request.CreateBookingRequest;
+import org.nurfet.bookingsystem.dto.request.CreateBookingSeriesRequest;
+import org.nurfet.bookingsystem.dto.request.CreateRoomRequest;
+import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.BookingSeriesResponse;
+import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.entity.RecurrenceFrequency;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.BookingSeriesRepository;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("POST /api/v1/bookings/series")
+class BookingSeriesIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSeriesRepository seriesRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private RoomResponse room;
+    private Instant base;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        room = webTestClient.post()
+                .uri("/api/v1/rooms")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateRoomRequest("Series Room", 8, "Room for recurring meetings"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(RoomResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        base = Instant.now().plus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        seriesRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    private CreateBookingSeriesRequest weekly(int count, boolean skipConflicts) {
+        return new CreateBookingSeriesRequest(room.id(), "Weekly sync", "sync@example.com",
+                base, base.plus(1, ChronoUnit.HOURS),
+                RecurrenceFrequency.WEEKLY, null, null, count, null, skipConflicts);
+    }
+
+    private void book(Instant start, Instant end) {
+        webTestClient.post()
+                .uri("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateBookingRequest(room.id(), "Existing", "existing@example.com", start, end))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    @DisplayName("201 Created — вхождения развёрнуты с шагом в неделю и доступны через GET")
+    void shouldExpandWeeklySeries() {
+        BookingSeriesResponse created = webTestClient.post()
+                .uri("/api/v1/bookings/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(weekly(4, false))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookingSeriesResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(created.id()).isNotNull();
+        assertThat(created.interval()).isEqualTo(1);
+        assertThat(created.skipped()).isEmpty();
+        assertThat(created.bookings())
+                .extracting(BookingResponse::startTime)
+                .containsExactly(base,
+                        base.plus(7, ChronoUnit.DAYS),
+                        base.plus(14, ChronoUnit.DAYS),
+                        base.plus(21, ChronoUnit.DAYS));
+
+        webTestClient.get()
+                .uri("/api/v1/bookings/series/{id}", created.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookingSeriesResponse.class)
+                .value(series -> {
+                    assertThat(series.roomId()).isEqualTo(room.id());
+                    assertThat(series.bookings()).hasSize(4);
+                    assertThat(series.bookings()).extracting(BookingResponse::title).containsOnly("Weekly sync");
+                });
+    }
+
+    @Test
+    @DisplayName("409 Conflict — занятое вхождение отклоняет всю серию")
+    void shouldRejectWholeSeriesOnConflict() {
+        book(base.plus(14, ChronoUnit.DAYS).plus(30, ChronoUnit.MINUTES),
+                base.plus(14, ChronoUnit.DAYS).plus(90, ChronoUnit.MINUTES));
+
+        webTestClient.post()
+                .uri("/api/v1/bookings/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(weekly(4, false))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        assertThat(seriesRepository.count()).isZero();
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("skipConflicts — занятые вхождения пропускаются и перечисляются в ответе")
+    void shouldSkipConflictingOccurrences() {
+        Instant busyStart = base.plus(7, ChronoUnit.DAYS);
+        book(busyStart, busyStart.plus(1, ChronoUnit.HOURS));
+
+        webTestClient.post()
+                .uri("/api/v1/bookings/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(weekly(4, true))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookingSeriesResponse.class)
+                .value(series -> {
+                    assertThat(series.bookings()).hasSize(3);
+                    assertThat(series.skipped()).extracting(TimeSlotResponse::startTime).containsExactly(busyStart);
+                });
+    }
+
+    @Test
+    @DisplayName("timeZone — вхождения повторяются в одно и то же местное время пояса серии")
+    void shouldExpandInSeriesTimeZone() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+
+        webTestClient.post()
+                .uri("/api/v1/bookings/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateBookingSeriesRequest(room.id(), "Berlin sync", "berlin@example.com",
+                        base, base.plus(1, ChronoUnit.HOURS),
+                        RecurrenceFrequency.WEEKLY, 1, null, 30, berlin, false))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookingSeriesResponse.class)
+                .value(series -> {
+                    assertThat(series.timeZone()).isEqualTo(berlin);
+                    assertThat(series.bookings())
+                            .extracting(booking -> booking.startTime().atZone(berlin).toLocalTime())
+                            .containsOnly(base.atZone(berlin).toLocalTime());
+                });
+    }
+
+    @Test
+    @DisplayName("400 Bad Request — серия без until и count")
+    void shouldRejectUnboundedSeries() {
+        webTestClient.post()
+                .uri("/api/v1/bookings/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateBookingSeriesRequest(room.id(), "Endless", "endless@example.com",
+                        base, base.plus(1, ChronoUnit.HOURS),
+                        RecurrenceFrequency.DAILY, 1, null, null, null, false))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Проверка конфликтов и вставка не зависят от числа вхождений поштучно")
+    void shouldCreateSeriesWithFewStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        webTestClient.post()
+                .uri("/api/v1/bookings/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateBookingSeriesRequest(room.id(), "Daily standup", "standup@example.com",
+                        base, base.plus(15, ChronoUnit.MINUTES),
+                        RecurrenceFrequency.DAILY, 1, null, 30, null, false))
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(31);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+}
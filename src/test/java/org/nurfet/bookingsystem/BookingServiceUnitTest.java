@@ -9,22 +9,48 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.dto.projection.BookingConflictRow;
+import org.nurfet.bookingsystem.dto.projection.BookingTransitionRow;
 import org.nurfet.bookingsystem.dto.request.CreateBookingRequest;
+import org.nurfet.bookingsystem.dto.response.AvailabilityResponse;
 import org.nurfet.bookingsystem.dto.response.BookingResponse;
+import org.nurfet.bookingsystem.dto.response.RoomFreeSlotsResponse;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
 import org.nurfet.bookingsystem.entity.Booking;
 import org.nurfet.bookingsystem.entity.BookingStatus;
 import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
 import org.nurfet.bookingsystem.exception.BookingConflictException;
 import org.nurfet.bookingsystem.exception.EntityNotFoundException;
+import org.nurfet.bookingsystem.exception.InvalidBookingStateException;
+import org.nurfet.bookingsystem.exception.InvalidRequestException;
 import org.nurfet.bookingsystem.mapper.booking.BookingMapper;
+import org.nurfet.bookingsystem.repository.ArchivedBookingRepository;
 import org.nurfet.bookingsystem.repository.BookingRepository;
 import org.nurfet.bookingsystem.repository.RoomRepository;
 import org.nurfet.bookingsystem.service.BookingService;
+import org.nurfet.bookingsystem.service.availability.ActiveBookingCounters;
+import org.nurfet.bookingsystem.service.availability.BookingIntervalIndex;
+import org.nurfet.bookingsystem.service.availability.OccupancyBitmap;
+import org.nurfet.bookingsystem.service.room.KnownRoomIds;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -53,12 +79,33 @@ public class BookingServiceUnitTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private RoomRepository roomRepository;
 
     @Mock
     private BookingMapper bookingMapper;
 
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+
+    @Mock
+    private OccupancyBitmap occupancyBitmap;
+
+    @Mock
+    private ActiveBookingCounters activeBookingCounters;
+
+    @Mock
+    private KnownRoomIds knownRoomIds;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BookingProperties properties = bindProperties(Map.of());
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -72,6 +119,11 @@ public class BookingServiceUnitTest {
     private Instant startTime;
     private Instant endTime;
 
+    private static BookingProperties bindProperties(Map<String, String> values) {
+        return new Binder(new MapConfigurationPropertySource(values))
+                .bindOrCreate("booking", BookingProperties.class);
+    }
+
     @BeforeEach
     void setUp() {
         startTime = Instant.now().plus(1, ChronoUnit.HOURS);
@@ -108,7 +160,8 @@ public class BookingServiceUnitTest {
                 60L,
                 BookingStatus.PENDING,
                 Instant.now(),
-                Instant.now()
+                Instant.now(),
+                0L
         );
     }
 
@@ -121,8 +174,8 @@ public class BookingServiceUnitTest {
         void shouldCreateBookingSuccessfully() {
             // Given — настраиваем поведение mock'ов
             given(roomRepository.findByIdWithLock(1L)).willReturn(Optional.of(testRoom));
-            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any())).willReturn(false);
-            given(bookingRepository.save(any(Booking.class))).willReturn(testBooking);
+            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any(), any())).willReturn(false);
+            given(bookingRepository.saveAndFlush(any(Booking.class))).willReturn(testBooking);
             given(bookingMapper.toResponse(any(Booking.class))).willReturn(bookingResponse);
 
             // When — вызываем тестируемый метод
@@ -134,8 +187,8 @@ public class BookingServiceUnitTest {
 
             // Проверяем что методы были вызваны
             then(roomRepository).should().findByIdWithLock(1L);
-            then(bookingRepository).should().existsOverlappingBooking(anyLong(), any(), any());
-            then(bookingRepository).should().save(any(Booking.class));
+            then(bookingRepository).should().existsOverlappingBooking(anyLong(), any(), any(), any());
+            then(bookingRepository).should().saveAndFlush(any(Booking.class));
             then(bookingMapper).should().toResponse(any(Booking.class));
         }
 
@@ -152,32 +205,32 @@ public class BookingServiceUnitTest {
             assertThatThrownBy(() -> bookingService.createBooking(request))
                     .isInstanceOf(EntityNotFoundException.class);
 
-            then(bookingRepository).should(never()).save(any());
+            then(bookingRepository).should(never()).saveAndFlush(any());
         }
 
         @Test
         @DisplayName("Выбрасывает исключение при конфликте времени")
         void throwExceptionWhenTimeConflict() {
             given(roomRepository.findByIdWithLock(1L)).willReturn(Optional.of(testRoom));
-            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any())).willReturn(true);
+            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any(), any())).willReturn(true);
 
             assertThatThrownBy(() -> bookingService.createBooking(createRequest))
                     .isInstanceOf(BookingConflictException.class);
 
-            then(bookingRepository).should(never()).save(any());
+            then(bookingRepository).should(never()).saveAndFlush(any());
         }
 
         @Test
         @DisplayName("Использует ArgumentCaptor для проверки сохраняемого объекта")
         void saveBookWithCorrectData() {
             given(roomRepository.findByIdWithLock(1L)).willReturn(Optional.of(testRoom));
-            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any())).willReturn(false);
-            given(bookingRepository.save(any(Booking.class))).willReturn(testBooking);
+            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any(), any())).willReturn(false);
+            given(bookingRepository.saveAndFlush(any(Booking.class))).willReturn(testBooking);
             given(bookingMapper.toResponse(any(Booking.class))).willReturn(bookingResponse);
 
             bookingService.createBooking(createRequest);
 
-            then(bookingRepository).should().save(bookingCaptor.capture());
+            then(bookingRepository).should().saveAndFlush(bookingCaptor.capture());
 
             Booking saved = bookingCaptor.getValue();
             assertThat(saved.getTitle()).isEqualTo("Test Meeting");
@@ -185,37 +238,109 @@ public class BookingServiceUnitTest {
             assertThat(saved.getRoom()).isEqualTo(testRoom);
             assertThat(saved.getStatus()).isEqualTo(BookingStatus.PENDING);
         }
+
+        @Test
+        @DisplayName("Пересечение из индекса подтверждается в БД перед отказом")
+        void indexHitIsConfirmedInDatabase() {
+            given(intervalIndex.isReady()).willReturn(true);
+            given(intervalIndex.hasOverlap(anyLong(), any(), any(), any())).willReturn(true);
+            given(roomRepository.findByIdWithLock(1L)).willReturn(Optional.of(testRoom));
+            given(bookingRepository.existsOverlappingBooking(anyLong(), any(), any(), any())).willReturn(false);
+            given(bookingRepository.saveAndFlush(any(Booking.class))).willReturn(testBooking);
+            given(bookingMapper.toResponse(any(Booking.class))).willReturn(bookingResponse);
+
+            assertThat(bookingService.createBooking(createRequest)).isNotNull();
+
+            then(bookingRepository).should().existsOverlappingBooking(anyLong(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("OPTIMISTIC: не блокирует комнату и не проверяет пересечения в БД")
+        void optimisticModeSkipsRoomLock() {
+            ReflectionTestUtils.setField(bookingService, "properties",
+                    bindProperties(Map.of("booking.creation.mode", "OPTIMISTIC")));
+            given(roomRepository.findById(1L)).willReturn(Optional.of(testRoom));
+            given(bookingRepository.saveAndFlush(any(Booking.class))).willReturn(testBooking);
+            given(bookingMapper.toResponse(any(Booking.class))).willReturn(bookingResponse);
+
+            bookingService.createBooking(createRequest);
+
+            then(roomRepository).should(never()).findByIdWithLock(anyLong());
+            then(bookingRepository).should(never()).existsOverlappingBooking(anyLong(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("OPTIMISTIC: нарушение excl_booking_overlap превращается в BookingConflictException")
+        void optimisticModeTranslatesOverlapViolation() {
+            ReflectionTestUtils.setField(bookingService, "properties",
+                    bindProperties(Map.of("booking.creation.mode", "OPTIMISTIC")));
+            given(roomRepository.findById(1L)).willReturn(Optional.of(testRoom));
+            given(bookingRepository.saveAndFlush(any(Booking.class))).willThrow(new DataIntegrityViolationException(
+                    "conflicting key value violates exclusion constraint \"excl_booking_overlap\""));
+
+            assertThatThrownBy(() -> bookingService.createBooking(createRequest))
+                    .isInstanceOf(BookingConflictException.class);
+        }
     }
 
     @Nested
     @DisplayName("ConfirmAndCancelBookings")
     class ConfirmBookingTests {
 
+        private BookingTransitionRow transition(BookingStatus previous, BookingStatus current) {
+            return new BookingTransitionRow(1L, 1L, "Тестовая комната", "Test Meeting", "test@example.com",
+                    testBooking.getStartTime(), testBooking.getEndTime(),
+                    current.name(), previous.name(), Instant.now(), Instant.now(), 1L);
+        }
+
         @Test
-        @DisplayName("успешно подтверждает PENDING бронирование")
+        @DisplayName("успешно подтверждает PENDING бронирование одним UPDATE")
         void confirmPendingBooking() {
-            given(bookingRepository.findById(1L)).willReturn(Optional.of(testBooking));
-            given(bookingRepository.save(any(Booking.class))).willReturn(testBooking);
-            given(bookingMapper.toResponse(any(Booking.class))).willReturn(bookingResponse);
+            given(bookingRepository.confirmPending(eq(1L), any()))
+                    .willReturn(Optional.of(transition(BookingStatus.PENDING, BookingStatus.CONFIRMED)));
 
             BookingResponse result = bookingService.confirmBooking(1L);
 
-            assertThat(result).isNotNull();
-
-            then(bookingRepository).should().findById(1L);
-            assertThat(testBooking.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+            assertThat(result.status()).isEqualTo(BookingStatus.CONFIRMED);
+            assertThat(result.roomName()).isEqualTo("Тестовая комната");
+            then(bookingRepository).should(never()).findById(any());
+            then(bookingRepository).should(never()).saveAndFlush(any());
+            then(eventPublisher).should().publishEvent(any(BookingChangedEvent.class));
         }
 
         @Test
-        @DisplayName("успешно отменяет бронирование")
+        @DisplayName("успешно отменяет бронирование одним UPDATE")
         void cancelBooking() {
+            given(bookingRepository.cancelActive(eq(1L), any()))
+                    .willReturn(Optional.of(transition(BookingStatus.CONFIRMED, BookingStatus.CANCELLED)));
+
+            BookingResponse result = bookingService.cancelBooking(1L);
+
+            assertThat(result.status()).isEqualTo(BookingStatus.CANCELLED);
+            then(bookingRepository).should(never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("несостоявшийся переход объясняется статусом бронирования")
+        void explainRejectedTransition() {
+            testBooking.cancel();
+            given(bookingRepository.confirmPending(eq(1L), any())).willReturn(Optional.empty());
             given(bookingRepository.findById(1L)).willReturn(Optional.of(testBooking));
-            given(bookingRepository.save(any(Booking.class))).willReturn(testBooking);
-            given(bookingMapper.toResponse(any(Booking.class))).willReturn(bookingResponse);
 
-            bookingService.cancelBooking(1L);
+            assertThatThrownBy(() -> bookingService.confirmBooking(1L))
+                    .isInstanceOf(InvalidBookingStateException.class)
+                    .hasMessageContaining("CANCELLED");
+            then(eventPublisher).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("переход несуществующего бронирования даёт 404")
+        void throwWhenTransitionTargetMissing() {
+            given(bookingRepository.cancelActive(eq(99L), any())).willReturn(Optional.empty());
+            given(bookingRepository.findById(99L)).willReturn(Optional.empty());
 
-            assertThat(testBooking.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+            assertThatThrownBy(() -> bookingService.cancelBooking(99L))
+                    .isInstanceOf(EntityNotFoundException.class);
         }
     }
 
@@ -235,6 +360,107 @@ public class BookingServiceUnitTest {
         }
     }
 
+    @Nested
+    @DisplayName("checkAvailability")
+    class CheckAvailabilityTests {
+
+        private BookingConflictRow row(Long bookingId, long total) {
+            return new BookingConflictRow(1L, "Тестовая комната", bookingId, "Test Meeting",
+                    "test@example.com", startTime, endTime, BookingStatus.PENDING,
+                    startTime, startTime, total);
+        }
+
+        @Test
+        @DisplayName("один запрос: конфликты ограничены лимитом, общее число передаётся отдельно")
+        void returnLimitedConflictsWithTotal() {
+            given(bookingRepository.findAvailability(eq(1L), any(), any(), eq(Limit.of(20))))
+                    .willReturn(List.of(row(1L, 25), row(2L, 25)));
+
+            AvailabilityResponse response = bookingService.checkAvailability(1L, startTime, endTime);
+
+            assertThat(response.available()).isFalse();
+            assertThat(response.conflicts().size()).isEqualTo(2);
+            assertThat(response.totalConflicts()).isEqualTo(25L);
+            assertThat(response.conflicts().getFirst().roomName()).isEqualTo("Тестовая комната");
+            then(bookingRepository).should(never()).existsOverlappingBooking(any(), any(), any(), any());
+            then(roomRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("фильтр, под который подходит больше лимита комнат, отклоняется, а не обрезается")
+        void rejectFilterMatchingTooManyRooms() {
+            given(roomRepository.findBy(any(Specification.class), any()))
+                    .willReturn(Collections.nCopies(BookingService.MAX_AVAILABILITY_ROOMS + 1, testRoom));
+
+            assertThatThrownBy(() -> bookingService.checkAvailabilityForRooms(null, null, startTime, endTime))
+                    .isInstanceOf(InvalidRequestException.class);
+            then(bookingRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("строка без бронирования означает свободный слот")
+        void returnFreeForRoomWithoutConflicts() {
+            given(bookingRepository.findAvailability(eq(1L), any(), any(), any()))
+                    .willReturn(List.of(row(null, 0)));
+
+            assertThat(bookingService.checkAvailability(1L, startTime, endTime))
+                    .isEqualTo(AvailabilityResponse.free());
+        }
+
+        @Test
+        @DisplayName("промах прогретого индекса не даёт «свободно» без запроса к БД")
+        void confirmIndexMissInDatabase() {
+            // Бронирование создано на другом узле: индекс о нём не знает
+            given(intervalIndex.isReady()).willReturn(true);
+            given(intervalIndex.findOverlappingIds(eq(1L), any(), any())).willReturn(List.of());
+            given(bookingRepository.findAvailability(eq(1L), any(), any(), any()))
+                    .willReturn(List.of(row(5L, 1)));
+
+            AvailabilityResponse response = bookingService.checkAvailability(1L, startTime, endTime);
+
+            assertThat(response.available()).isFalse();
+            assertThat(response.conflicts().getFirst().id()).isEqualTo(5L);
+        }
+
+        @Test
+        @DisplayName("пустой результат означает, что комнаты нет")
+        void throwWhenRoomMissing() {
+            given(bookingRepository.findAvailability(eq(99L), any(), any(), any()))
+                    .willReturn(List.of());
+
+            assertThatThrownBy(() -> bookingService.checkAvailability(99L, startTime, endTime))
+                    .isInstanceOf(EntityNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("findFreeSlots")
+    class FindFreeSlotsTests {
+
+        @Test
+        @DisplayName("окна из битовых карт подтверждаются в БД, устаревшая карта пересчитывается")
+        void confirmBitmapWindowsInDatabase() {
+            Instant day = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+            Instant from = day.plus(9, ChronoUnit.HOURS);
+            Instant to = day.plus(12, ChronoUnit.HOURS);
+            Duration hour = Duration.ofHours(1);
+
+            given(roomRepository.findBy(any(Specification.class), any())).willReturn(List.of(testRoom));
+            given(occupancyBitmap.isReady()).willReturn(true);
+            given(occupancyBitmap.findFreeWindows(eq(1L), any(), any(), eq(hour), eq(2))).willReturn(List.of(
+                    new TimeSlotResponse(from, from.plus(hour)),
+                    new TimeSlotResponse(from.plus(hour), from.plus(2, ChronoUnit.HOURS))));
+            // Бронирование 09:00–10:00 есть в БД, но карта о нём не знает
+            given(bookingRepository.findActiveSlotsInRooms(any(), any(), any())).willReturn(List.of(
+                    new BookingSlot(7L, 1L, from, from.plus(hour), BookingStatus.CONFIRMED)));
+
+            List<RoomFreeSlotsResponse> result = bookingService.findFreeSlots(null, hour, from, to, 2);
+
+            assertThat(result.getFirst().slots().stream().map(TimeSlotResponse::startTime).toList())
+                    .isEqualTo(List.of(from.plus(hour), from.plus(2, ChronoUnit.HOURS)));
+        }
+    }
+
     @Nested
     @DisplayName("getBooking and additional features")
     class GetBookingAndAdditionalFeatures {
@@ -250,6 +476,56 @@ public class BookingServiceUnitTest {
             assertThat(result).isEqualTo(bookingResponse);
             then(bookingRepository).should().findById(1L);
             then(bookingMapper).should().toResponse(testBooking);
+            then(archivedBookingRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("ищет в архиве бронирование, которого нет в рабочей таблице")
+        void fallBackToArchive() {
+            given(bookingRepository.findById(1L)).willReturn(Optional.empty());
+            given(archivedBookingRepository.findResponseById(1L)).willReturn(Optional.of(bookingResponse));
+
+            assertThat(bookingService.getBooking(1L)).isEqualTo(bookingResponse);
+        }
+
+        @Test
+        @DisplayName("бросает исключение, если бронирования нет и в архиве")
+        void throwWhenMissingEverywhere() {
+            given(bookingRepository.findById(99L)).willReturn(Optional.empty());
+            given(archivedBookingRepository.findResponseById(99L)).willReturn(Optional.empty());
+
+            assertThatThrownBy(() -> bookingService.getBooking(99L))
+                    .isInstanceOf(EntityNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("непустой результат не требует проверки существования комнаты")
+        void skipRoomCheckWhenBookingsFound() {
+            given(bookingRepository.countActiveBookingsByRoom(eq(1L), any())).willReturn(3L);
+
+            assertThat(bookingService.countActiveBookingsByRoom(1L)).isEqualTo(3L);
+            then(knownRoomIds).shouldHaveNoInteractions();
+            then(roomRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("готовые счётчики отвечают без запроса в БД")
+        void countFromCountersWhenReady() {
+            given(activeBookingCounters.isReady()).willReturn(true);
+            given(activeBookingCounters.count(eq(1L), any())).willReturn(2L);
+
+            assertThat(bookingService.countActiveBookingsByRoom(1L)).isEqualTo(2L);
+            then(bookingRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("пустой результат по неизвестной комнате даёт 404")
+        void throwForUnknownRoomWhenNothingFound() {
+            given(bookingRepository.countActiveBookingsByRoom(eq(99L), any())).willReturn(0L);
+            given(knownRoomIds.exists(99L)).willReturn(false);
+
+            assertThatThrownBy(() -> bookingService.countActiveBookingsByRoom(99L))
+                    .isInstanceOf(EntityNotFoundException.class);
         }
 
         @Test
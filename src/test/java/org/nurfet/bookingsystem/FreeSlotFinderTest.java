@@ -0,0 +1,100 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.service.availability.FreeSlotFinder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FreeSlotFinder")
+class FreeSlotFinderTest {
+
+    private static final Duration STEP = Duration.ofMinutes(15);
+
+    private Instant baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private Instant at(int hour, int minute) {
+        return baseTime.plus(hour, ChronoUnit.HOURS).plus(minute, ChronoUnit.MINUTES);
+    }
+
+    private BookingSlot busy(int startHour, int startMinute, int endHour, int endMinute) {
+        return new BookingSlot(1L, 1L, at(startHour, startMinute), at(endHour, endMinute), BookingStatus.CONFIRMED);
+    }
+
+    private List<Instant> starts(List<TimeSlotResponse> slots) {
+        return slots.stream().map(TimeSlotResponse::startTime).toList();
+    }
+
+    @Test
+    @DisplayName("свободный день делится на слоты встык")
+    void emptyTimeline() {
+        List<TimeSlotResponse> slots = FreeSlotFinder.find(List.of(),
+                at(9, 0), at(18, 0), Duration.ofHours(1), STEP, 3);
+
+        assertThat(starts(slots)).containsExactly(at(9, 0), at(10, 0), at(11, 0));
+        assertThat(slots.getFirst().endTime()).isEqualTo(at(10, 0));
+    }
+
+    @Test
+    @DisplayName("слоты обходят занятые интервалы и не влезающие окна")
+    void skipBusyAndShortGaps() {
+        List<TimeSlotResponse> slots = FreeSlotFinder.find(List.of(
+                        busy(9, 30, 10, 0),
+                        busy(10, 45, 12, 0)),
+                at(9, 0), at(18, 0), Duration.ofMinutes(60), STEP, 2);
+
+        assertThat(starts(slots)).containsExactly(at(12, 0), at(13, 0));
+    }
+
+    @Test
+    @DisplayName("начало слота выравнивается по сетке")
+    void alignToGrid() {
+        List<TimeSlotResponse> slots = FreeSlotFinder.find(List.of(busy(9, 0, 10, 5)),
+                at(8, 52), at(18, 0), Duration.ofMinutes(30), STEP, 1);
+
+        assertThat(starts(slots)).containsExactly(at(10, 15));
+    }
+
+    @Test
+    @DisplayName("длительность не кратна шагу — следующие слоты тоже начинаются на сетке")
+    void keepSlotsOnGridForUnalignedDuration() {
+        List<TimeSlotResponse> slots = FreeSlotFinder.find(List.of(),
+                at(9, 0), at(18, 0), Duration.ofMinutes(20), STEP, 3);
+
+        assertThat(starts(slots)).containsExactly(at(9, 0), at(9, 30), at(10, 0));
+    }
+
+    @Test
+    @DisplayName("учитывает бронирование, начавшееся до окна поиска")
+    void bookingStartedBeforeWindow() {
+        List<TimeSlotResponse> slots = FreeSlotFinder.find(List.of(
+                        busy(7, 0, 11, 0),
+                        busy(8, 0, 9, 0)),
+                at(9, 0), at(18, 0), Duration.ofHours(1), STEP, 1);
+
+        assertThat(starts(slots)).containsExactly(at(11, 0));
+    }
+
+    @Test
+    @DisplayName("слот не выходит за горизонт")
+    void respectHorizon() {
+        List<TimeSlotResponse> slots = FreeSlotFinder.find(List.of(busy(9, 0, 17, 30)),
+                at(9, 0), at(18, 0), Duration.ofHours(1), STEP, 5);
+
+        assertThat(slots).isEmpty();
+    }
+}
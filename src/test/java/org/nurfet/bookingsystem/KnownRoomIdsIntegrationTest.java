@@ -0,0 +1,69 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.room.KnownRoomIds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("KnownRoomIds Integration Test")
+public class KnownRoomIdsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    private KnownRoomIds knownRoomIds(String ttl) {
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "booking.room-directory.known-ids-ttl", ttl)))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        return new KnownRoomIds(roomRepository, properties);
+    }
+
+    @Test
+    @DisplayName("В пределах TTL подтверждённая комната проверяется в памяти")
+    void rememberRoomWithinTtl() {
+        KnownRoomIds knownRoomIds = knownRoomIds("1h");
+        Room room = roomRepository.save(new Room("Известная комната", 4));
+
+        assertThat(knownRoomIds.exists(room.getId())).isTrue();
+        assertThat(knownRoomIds.exists(room.getId() + 1000)).isFalse();
+
+        // Удаление в обход сервиса замечается только по истечении TTL
+        roomRepository.delete(room);
+
+        assertThat(knownRoomIds.exists(room.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("После TTL комната заново сверяется с БД, и удалённая перестаёт существовать")
+    void reconfirmRoomAfterTtl() {
+        KnownRoomIds knownRoomIds = knownRoomIds("0s");
+        Room room = roomRepository.save(new Room("Удаляемая комната", 4));
+
+        assertThat(knownRoomIds.exists(room.getId())).isTrue();
+
+        roomRepository.delete(room);
+
+        assertThat(knownRoomIds.exists(room.getId())).isFalse();
+    }
+}
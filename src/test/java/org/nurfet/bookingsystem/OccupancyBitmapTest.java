@@ -0,0 +1,125 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.dto.response.TimeSlotResponse;
+import org.nurfet.bookingsystem.entity.BookingStatus;
+import org.nurfet.bookingsystem.event.BookingChangedEvent;
+import org.nurfet.bookingsystem.event.BookingSlot;
+import org.nurfet.bookingsystem.event.BookingsExpiredEvent;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.service.availability.OccupancyBitmap;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("OccupancyBitmap")
+class OccupancyBitmapTest {
+
+    private OccupancyBitmap bitmap;
+    private Instant baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+        BookingRepository repository = mock(BookingRepository.class);
+        given(repository.findActiveSlots(any())).willReturn(List.of(
+                slot(1L, 1L, at(9, 0), at(10, 0)),
+                slot(2L, 1L, at(10, 5), at(11, 10)),
+                slot(3L, 2L, at(11, 0), at(13, 0)),
+                slot(4L, 2L, at(22, 0), at(26, 0))
+        ));
+
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("booking.occupancy.enabled", "true")))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        bitmap = new OccupancyBitmap(repository, properties);
+        bitmap.rebuild();
+    }
+
+    private BookingSlot slot(Long id, Long roomId, Instant start, Instant end) {
+        return new BookingSlot(id, roomId, start, end, BookingStatus.CONFIRMED);
+    }
+
+    private Instant at(int hour, int minute) {
+        return baseTime.plus(hour, ChronoUnit.HOURS).plus(minute, ChronoUnit.MINUTES);
+    }
+
+    private List<Instant> starts(List<TimeSlotResponse> windows) {
+        return windows.stream().map(TimeSlotResponse::startTime).toList();
+    }
+
+    @Test
+    @DisplayName("выровненные окна проверяются по битам")
+    void alignedWindows() {
+        assertThat(starts(bitmap.findFreeWindows(1L, at(8, 0), at(12, 0), Duration.ofMinutes(15), 10)))
+                .containsExactly(at(8, 0), at(8, 15), at(8, 30), at(8, 45), at(11, 15), at(11, 30), at(11, 45));
+        assertThat(starts(bitmap.findFreeWindows(3L, at(9, 0), at(10, 0), Duration.ofHours(1), 5)))
+                .containsExactly(at(9, 0));
+    }
+
+    @Test
+    @DisplayName("поиск окон пропускает частично занятые слоты")
+    void findFreeWindows() {
+        List<TimeSlotResponse> windows = bitmap.findFreeWindows(1L,
+                at(9, 0), at(18, 0), Duration.ofMinutes(30), 2);
+
+        assertThat(starts(windows)).containsExactly(at(11, 15), at(11, 45));
+    }
+
+    @Test
+    @DisplayName("бронирование через полночь занимает слоты обоих дней")
+    void findFreeWindowsAcrossMidnight() {
+        List<TimeSlotResponse> windows = bitmap.findFreeWindows(2L,
+                at(20, 0), at(30, 0), Duration.ofHours(2), 5);
+
+        assertThat(starts(windows)).containsExactly(at(20, 0), at(26, 0), at(28, 0));
+    }
+
+    @Test
+    @DisplayName("длительность должна быть кратна слоту")
+    void rejectUnalignedDuration() {
+        assertThatThrownBy(() -> bitmap.findFreeWindows(1L,
+                at(9, 0), at(18, 0), Duration.ofMinutes(20), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("отмена, перенос и истечение обновляют карту")
+    void applyBookingChanges() {
+        BookingSlot shared = slot(5L, 1L, at(11, 12), at(12, 0));
+        bitmap.onBookingChanged(BookingChangedEvent.created(shared));
+
+        bitmap.onBookingChanged(new BookingChangedEvent(slot(2L, 1L, at(10, 5), at(11, 10)),
+                new BookingSlot(2L, 1L, at(10, 5), at(11, 10), BookingStatus.CANCELLED)));
+
+        assertThat(starts(bitmap.findFreeWindows(1L, at(10, 0), at(12, 0), Duration.ofMinutes(15), 10)))
+                .containsExactly(at(10, 0), at(10, 15), at(10, 30), at(10, 45));
+
+        bitmap.onBookingChanged(new BookingChangedEvent(shared, slot(5L, 2L, at(14, 0), at(15, 0))));
+        assertThat(bitmap.findFreeWindows(1L, at(10, 0), at(12, 0), Duration.ofMinutes(15), 10)).hasSize(8);
+        assertThat(bitmap.findFreeWindows(2L, at(14, 0), at(15, 0), Duration.ofMinutes(15), 4)).isEmpty();
+
+        bitmap.onBookingsExpired(new BookingsExpiredEvent(at(14, 0)));
+        assertThat(starts(bitmap.findFreeWindows(1L, at(9, 0), at(10, 0), Duration.ofHours(1), 1)))
+                .containsExactly(at(9, 0));
+        assertThat(starts(bitmap.findFreeWindows(2L, at(11, 0), at(13, 0), Duration.ofHours(2), 1)))
+                .containsExactly(at(11, 0));
+        assertThat(bitmap.findFreeWindows(2L, at(14, 0), at(15, 0), Duration.ofMinutes(15), 4)).isEmpty();
+    }
+}
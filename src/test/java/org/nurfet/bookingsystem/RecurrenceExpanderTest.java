@@ -0,0 +1,87 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.entity.RecurrenceFrequency;
+import org.nurfet.bookingsystem.exception.InvalidRecurrenceException;
+import org.nurfet.bookingsystem.service.series.RecurrenceExpander;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RecurrenceExpander")
+class RecurrenceExpanderTest {
+
+    private static final Instant FIRST = Instant.parse("2026-01-05T09:00:00Z");
+
+    private Instant days(int days) {
+        return FIRST.plus(days, ChronoUnit.DAYS);
+    }
+
+    @Test
+    @DisplayName("count задаёт число вхождений вместе с первым")
+    void expandByCount() {
+        List<Instant> starts = RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1, null, 3);
+
+        assertThat(starts).containsExactly(FIRST, days(1), days(2));
+    }
+
+    @Test
+    @DisplayName("until ограничивает начало вхождения включительно")
+    void expandUntilInclusive() {
+        List<Instant> starts = RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.WEEKLY, 1, days(21), null);
+
+        assertThat(starts).containsExactly(FIRST, days(7), days(14), days(21));
+    }
+
+    @Test
+    @DisplayName("интервал умножает шаг частоты")
+    void expandWithInterval() {
+        List<Instant> starts = RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.WEEKLY, 2, null, 3);
+
+        assertThat(starts).containsExactly(FIRST, days(14), days(28));
+    }
+
+    @Test
+    @DisplayName("при until и count серия заканчивается по первому ограничению")
+    void expandByEarliestBound() {
+        assertThat(RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1, days(10), 2)).hasSize(2);
+        assertThat(RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1, days(1), 5)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("серия без ограничения, с until раньше начала или длиннее лимита отклоняется")
+    void rejectInvalidRules() {
+        assertThatThrownBy(() -> RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1, null, null))
+                .isInstanceOf(InvalidRecurrenceException.class);
+
+        assertThatThrownBy(() -> RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1, days(-1), null))
+                .isInstanceOf(InvalidRecurrenceException.class);
+
+        assertThatThrownBy(() -> RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1,
+                days(RecurrenceExpander.MAX_OCCURRENCES), null))
+                .isInstanceOf(InvalidRecurrenceException.class);
+
+        assertThat(RecurrenceExpander.expand(FIRST, ZoneOffset.UTC, RecurrenceFrequency.DAILY, 1,
+                days(RecurrenceExpander.MAX_OCCURRENCES - 1), null))
+                .hasSize(RecurrenceExpander.MAX_OCCURRENCES);
+    }
+
+    @Test
+    @DisplayName("вхождения сохраняют местное время через переход на летнее время")
+    void expandKeepsLocalTimeAcrossDst() {
+        // 09:00 по Берлину: до 29 марта 2026 — CET (UTC+1), после — CEST (UTC+2)
+        Instant first = Instant.parse("2026-03-23T08:00:00Z");
+
+        List<Instant> starts = RecurrenceExpander.expand(first, ZoneId.of("Europe/Berlin"),
+                RecurrenceFrequency.WEEKLY, 1, null, 2);
+
+        assertThat(starts).containsExactly(first, Instant.parse("2026-03-30T07:00:00Z"));
+    }
+}
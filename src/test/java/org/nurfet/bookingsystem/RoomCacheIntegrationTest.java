@@ -0,0 +1,80 @@
+package org.nurfet.bookingsystem;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.dto.request.UpdateRoomRequest;
+import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.entity.Room;
+import org.nurfet.bookingsystem.repository.BookingRepository;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.RoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Room second-level cache Integration Test")
+public class RoomCacheIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+
+        room = roomRepository.save(new Room("Кэшируемая комната", 8));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Повторное чтение комнаты не обращается к БД")
+    void readRoomFromCache() {
+        roomService.getRoom(room.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        RoomResponse cached = roomService.getRoom(room.getId());
+
+        assertThat(cached.name()).isEqualTo("Кэшируемая комната");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getCacheRegionStatistics(Room.CACHE_REGION).getHitCount()).isPositive();
+        assertThat(meterRegistry.get("booking.room.cache.hit.ratio").gauge().value()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Обновление и деактивация сразу видны при чтении из кэша")
+    void updateRefreshesCache() {
+        roomService.getRoom(room.getId());
+
+        roomService.updateRoom(room.getId(), new UpdateRoomRequest("Переименованная", null, null, false));
+        long statements = statistics.getPrepareStatementCount();
+
+        RoomResponse updated = roomService.getRoom(room.getId());
+
+        assertThat(updated.name()).isEqualTo("Переименованная");
+        assertThat(updated.active()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+}
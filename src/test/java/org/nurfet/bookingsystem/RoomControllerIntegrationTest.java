@@ -10,6 +10,9 @@ import org.nurfet.bookingsystem.dto.response.RoomResponse;
 import org.nurfet.bookingsystem.entity.Room;
 import org.nurfet.bookingsystem.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
@@ -23,6 +26,9 @@ public class RoomControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @LocalServerPort
+    private int port;
+
     @BeforeEach
     void setUp() {
         roomRepository.deleteAll();
@@ -202,6 +208,56 @@ public class RoomControllerIntegrationTest extends AbstractIntegrationTest {
                 });
     }
 
+    @Test
+    @DisplayName("PATCH /api/v1/rooms/{id} should honor If-Match and return 412 for stale ETag")
+    void shouldRejectStaleIfMatch() {
+
+        RoomResponse response = webTestClient.post()
+                .uri("/api/v1/rooms")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateRoomRequest("Versioned Room", 10, "Room for ETag tests"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(RoomResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(response).isNotNull();
+
+        String etag = webTestClient.get()
+                .uri("/api/v1/rooms/{id}", response.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.patch()
+                .uri("/api/v1/rooms/{id}", response.id())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdateRoomRequest(null, 12, null, null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        // Повтор с тем же ETag: комната уже изменена
+        webTestClient.patch()
+                .uri("/api/v1/rooms/{id}", response.id())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdateRoomRequest(null, 20, null, null))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody()
+                .jsonPath("$.currentVersion").isEqualTo(1);
+
+        Room room = roomRepository.findById(response.id()).orElseThrow();
+
+        assertThat(room.getCapacity()).isEqualTo(12);
+    }
+
     @Test
     @DisplayName("POST /api/v1/rooms/{id}/deactivate should deactivate room")
     void shouldDeactivateRoom() {
@@ -422,6 +478,125 @@ public class RoomControllerIntegrationTest extends AbstractIntegrationTest {
                     .jsonPath("$._embedded.rooms[2].name").isEqualTo("Small Room");
         }
 
+        @Test
+        @DisplayName("200 OK — mode=SIMILARITY находит название с опечаткой")
+        void shouldFindNameWithTypoBySimilarity() {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/rooms/search")
+                            .queryParam("name", "Mediun")
+                            .queryParam("mode", "SIMILARITY")
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.page.totalElements").isEqualTo(1)
+                    .jsonPath("$._embedded.rooms[0].name").isEqualTo("Medium Room");
+        }
+
+        @Test
+        @DisplayName("200 OK — mode=SIMILARITY сохраняет совпадения подстроки и остальные фильтры")
+        void shouldKeepSubstringMatchesAndFiltersBySimilarity() {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/rooms/search")
+                            .queryParam("name", "Room")
+                            .queryParam("description", "Conferense")
+                            .queryParam("capacity", 10)
+                            .queryParam("mode", "SIMILARITY")
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.page.totalElements").isEqualTo(1)
+                    .jsonPath("$._embedded.rooms[0].name").isEqualTo("Medium Room");
+        }
+
+        @Test
+        @DisplayName("200 OK — count=NONE отдаёт страницу без totalElements со ссылкой на следующую")
+        void shouldReturnSliceWithoutCount() {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/rooms/search")
+                            .queryParam("count", "NONE")
+                            .queryParam("size", 2)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.page.totalElements").doesNotExist()
+                    .jsonPath("$._embedded.rooms.length()").isEqualTo(2)
+                    .jsonPath("$._embedded.rooms[0].name").isEqualTo("Large Room")
+                    .jsonPath("$._links.next.href").exists();
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/rooms/search")
+                            .queryParam("count", "NONE")
+                            .queryParam("size", 2)
+                            .queryParam("page", 1)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$._embedded.rooms.length()").isEqualTo(1)
+                    .jsonPath("$._embedded.rooms[0].name").isEqualTo("Small Room")
+                    .jsonPath("$._links.next").doesNotExist();
+        }
+
+        @Test
+        @DisplayName("200 OK — count=ESTIMATE отдаёт оценку, на последней странице — точное число")
+        void shouldReturnEstimatedTotal() {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/rooms/search")
+                            .queryParam("name", "Room")
+                            .queryParam("count", "ESTIMATE")
+                            .queryParam("size", 2)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.page.totalElements").value(total ->
+                            assertThat(((Number) total).longValue()).isGreaterThanOrEqualTo(3));
+
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/api/v1/rooms/search")
+                            .queryParam("name", "Room")
+                            .queryParam("count", "ESTIMATE")
+                            .queryParam("size", 2)
+                            .queryParam("page", 1)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.page.totalElements").isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("200 OK — ссылки self у комнат в поиске совпадают со ссылкой из GET /{id}")
+        void shouldReturnSameSelfLinksAsGetRoom() {
+            for (Room room : roomRepository.findAll()) {
+                String expected = "http://localhost:" + port + "/api/v1/rooms/" + room.getId();
+
+                webTestClient.get()
+                        .uri("/api/v1/rooms/{id}", room.getId())
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody()
+                        .jsonPath("$._links.self.href").isEqualTo(expected);
+
+                webTestClient.get()
+                        .uri("/api/v1/rooms/search?size=10")
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody()
+                        .jsonPath("$._embedded.rooms[?(@.id == " + room.getId() + ")]._links.self.href")
+                        .isEqualTo(expected);
+            }
+        }
+
         @Test
         @DisplayName("400 Bad Request — невалидное значение capacity")
         void shouldReturn400WhenCapacityIsInvalid() {
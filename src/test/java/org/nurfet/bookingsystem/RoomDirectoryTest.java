@@ -0,0 +1,125 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.config.BookingProperties;
+import org.nurfet.bookingsystem.dto.response.RoomResponse;
+import org.nurfet.bookingsystem.dto.spec.RoomFilter;
+import org.nurfet.bookingsystem.event.RoomChangedEvent;
+import org.nurfet.bookingsystem.mapper.room.RoomMapper;
+import org.nurfet.bookingsystem.repository.RoomRepository;
+import org.nurfet.bookingsystem.service.room.RoomDirectory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("RoomDirectory")
+class RoomDirectoryTest {
+
+    private RoomDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        RoomRepository repository = mock(RoomRepository.class);
+        given(repository.findAll()).willReturn(List.of());
+
+        BookingProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("booking.room-directory.enabled", "true")))
+                .bindOrCreate("booking", BookingProperties.class);
+
+        directory = new RoomDirectory(repository, mock(RoomMapper.class), properties);
+        directory.rebuild();
+
+        directory.put(room(1L, "Переговорная Альфа", 10, "Проектор и доска", true));
+        directory.put(room(2L, "Переговорная Бета", 4, "Телевизор", true));
+        directory.put(room(3L, "Конференц-зал", 50, "Проектор, микрофоны", true));
+        directory.put(room(4L, "Старая переговорная", 6, null, false));
+    }
+
+    private RoomResponse room(Long id, String name, int capacity, String description, boolean active) {
+        Instant created = Instant.parse("2026-01-01T00:00:00Z").plusSeconds(id);
+        return new RoomResponse(id, name, capacity, description, active, created, created, 0L);
+    }
+
+    private List<Long> ids(RoomFilter filter) {
+        return directory.search(filter, Pageable.unpaged(Sort.by("id"))).map(RoomResponse::id).getContent();
+    }
+
+    @Test
+    @DisplayName("ищет подстроку в названии и описании без учёта регистра")
+    void matchSubstringIgnoringCase() {
+        assertThat(ids(new RoomFilter("ПЕРЕГОВОРНАЯ", null, null, null))).containsExactly(1L, 2L, 4L);
+        assertThat(ids(new RoomFilter("альф", null, null, null))).containsExactly(1L);
+        assertThat(ids(new RoomFilter(null, null, "проектор", null))).containsExactly(1L, 3L);
+        assertThat(ids(new RoomFilter("ая б", null, null, null))).containsExactly(2L);
+        assertThat(ids(new RoomFilter("зю", null, null, null))).isEmpty();
+        assertThat(ids(new RoomFilter("  ", null, null, null))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("триграммы-кандидаты проверяются на вхождение подстроки целиком")
+    void verifyTrigramCandidates() {
+        directory.put(room(5L, "абвгд вгдабв", 2, null, true));
+
+        assertThat(ids(new RoomFilter("абвгдаб", null, null, null))).isEmpty();
+        assertThat(ids(new RoomFilter("вгдабв", null, null, null))).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("фильтрует по минимальной вместимости и активности")
+    void filterByCapacityAndActive() {
+        assertThat(ids(new RoomFilter(null, 6, null, null))).containsExactly(1L, 3L, 4L);
+        assertThat(ids(new RoomFilter(null, 11, null, null))).containsExactly(3L);
+        assertThat(ids(new RoomFilter(null, 1000, null, null))).isEmpty();
+        assertThat(ids(new RoomFilter(null, 6, null, true))).containsExactly(1L, 3L);
+        assertThat(ids(new RoomFilter("переговорная", null, null, false))).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("сортирует и разбивает на страницы")
+    void sortAndPaginate() {
+        Page<RoomResponse> first = directory.search(RoomFilter.empty(),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "capacity")));
+        Page<RoomResponse> second = directory.search(RoomFilter.empty(),
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "capacity")));
+
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(first.map(RoomResponse::id).getContent()).containsExactly(3L, 1L, 4L);
+        assertThat(second.map(RoomResponse::id).getContent()).containsExactly(2L);
+
+        Page<RoomResponse> byName = directory.search(RoomFilter.empty(), PageRequest.of(0, 10, Sort.by("name")));
+        assertThat(byName.map(RoomResponse::name).getContent()).containsExactly(
+                "Конференц-зал", "Переговорная Альфа", "Переговорная Бета", "Старая переговорная");
+    }
+
+    @Test
+    @DisplayName("поддерживает сортировку только по полям ответа")
+    void supportsOnlyResponseFields() {
+        assertThat(directory.supports(Sort.by("name", "capacity"))).isTrue();
+        assertThat(directory.supports(Sort.unsorted())).isTrue();
+        assertThat(directory.supports(Sort.by("bookings.id"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("применяет изменения и удаления комнат")
+    void applyRoomChanges() {
+        directory.onRoomChanged(new RoomChangedEvent(2L, room(2L, "Переговорная Бета", 12, "Телевизор", false)));
+        directory.onRoomChanged(RoomChangedEvent.removed(3L));
+
+        assertThat(ids(new RoomFilter(null, 10, null, null))).containsExactly(1L, 2L);
+        assertThat(ids(new RoomFilter(null, null, "проектор", null))).containsExactly(1L);
+        assertThat(ids(new RoomFilter(null, null, null, false))).containsExactly(2L, 4L);
+    }
+}
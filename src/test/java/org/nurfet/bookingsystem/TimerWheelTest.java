@@ -0,0 +1,77 @@
+package org.nurfet.bookingsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nurfet.bookingsystem.service.expiry.TimerWheel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimerWheel")
+class TimerWheelTest {
+
+    private Instant start;
+    private TimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        start = Instant.parse("2026-03-01T10:00:00.300Z");
+        wheel = new TimerWheel(Duration.ofSeconds(1), start);
+    }
+
+    private Instant at(long seconds) {
+        return start.plusSeconds(seconds);
+    }
+
+    @Test
+    @DisplayName("срабатывает на первом тике после срока, не раньше")
+    void fireRightAfterDeadline() {
+        wheel.schedule(1L, at(5));
+
+        assertThat(wheel.advance(at(5))).isEmpty();
+        assertThat(wheel.advance(at(6))).containsExactly(1L);
+        assertThat(wheel.advance(at(60))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("дальние сроки переносятся между уровнями без опозданий")
+    void cascadeAcrossLevels() {
+        wheel.schedule(1L, at(100));
+        wheel.schedule(2L, at(5_000));
+        wheel.schedule(3L, at(Duration.ofDays(3).toSeconds()));
+        wheel.schedule(4L, at(Duration.ofDays(300).toSeconds()));
+
+        assertThat(wheel.advance(at(99))).isEmpty();
+        assertThat(wheel.advance(at(101))).containsExactly(1L);
+        assertThat(wheel.advance(at(4_999))).isEmpty();
+        assertThat(wheel.advance(at(5_001))).containsExactly(2L);
+        assertThat(wheel.advance(at(Duration.ofDays(3).toSeconds()))).isEmpty();
+        assertThat(wheel.advance(at(Duration.ofDays(3).toSeconds() + 1))).containsExactly(3L);
+        assertThat(wheel.advance(at(Duration.ofDays(300).toSeconds() + 1))).containsExactly(4L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("отмена и перенос срока")
+    void cancelAndReschedule() {
+        wheel.schedule(1L, at(10));
+        wheel.schedule(2L, at(10));
+        wheel.cancel(1L);
+        wheel.schedule(2L, at(30));
+
+        assertThat(wheel.advance(at(20))).isEmpty();
+        assertThat(wheel.advance(at(31))).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("просроченный срок срабатывает на ближайшем продвижении")
+    void firePastDeadlineImmediately() {
+        wheel.schedule(1L, start.minus(1, ChronoUnit.HOURS));
+
+        assertThat(wheel.advance(start)).containsExactly(1L);
+    }
+}